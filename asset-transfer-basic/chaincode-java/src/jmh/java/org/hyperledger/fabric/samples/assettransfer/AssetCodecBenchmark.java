@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.owlike.genson.Genson;
+
+/**
+ * Compares the ways an Asset can be written to and read from the world state:
+ * reflective Genson, org.json as used by the events sample, and AssetJsonCodec.
+ *
+ * Run with ./gradlew jmh; the gc profiler reports the allocation rate of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssetCodecBenchmark {
+
+    private final Genson genson = new Genson();
+    private final AssetCodec codec = AssetJsonCodec.INSTANCE;
+
+    private Asset asset;
+    private byte[] json;
+
+    @Setup
+    public final void setup() {
+        asset = new Asset("asset1", "blue", 5, "Tomoko", 300);
+        json = codec.encode(asset);
+    }
+
+    @Benchmark
+    public final byte[] gensonSerialize() {
+        return genson.serialize(asset).getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public final Asset gensonDeserialize() {
+        return genson.deserialize(new String(json, UTF_8), Asset.class);
+    }
+
+    @Benchmark
+    public final Asset gensonRoundTrip() {
+        return genson.deserialize(genson.serialize(asset), Asset.class);
+    }
+
+    @Benchmark
+    public final byte[] orgJsonSerialize() {
+        return toJSONObject(asset).toString().getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public final Asset orgJsonDeserialize() {
+        return fromJSONObject(new JSONObject(new String(json, UTF_8)));
+    }
+
+    @Benchmark
+    public final Asset orgJsonRoundTrip() {
+        return fromJSONObject(new JSONObject(toJSONObject(asset).toString()));
+    }
+
+    @Benchmark
+    public final byte[] codecSerialize() {
+        return codec.encode(asset);
+    }
+
+    @Benchmark
+    public final Asset codecDeserialize() {
+        return codec.decode(json);
+    }
+
+    @Benchmark
+    public final Asset codecRoundTrip() {
+        return codec.decode(codec.encode(asset));
+    }
+
+    private static JSONObject toJSONObject(final Asset asset) {
+        JSONObject object = new JSONObject();
+        object.put("appraisedValue", asset.getAppraisedValue());
+        object.put("assetID", asset.getAssetID());
+        object.put("color", asset.getColor());
+        object.put("owner", asset.getOwner());
+        object.put("size", asset.getSize());
+        return object;
+    }
+
+    private static Asset fromJSONObject(final JSONObject object) {
+        return new Asset(object.getString("assetID"), object.getString("color"), object.getInt("size"),
+                object.getString("owner"), object.getInt("appraisedValue"));
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+/**
+ * Converts assets to and from the bytes stored in the world state.
+ *
+ * Implementations must be deterministic: every endorser has to produce exactly
+ * the same bytes for the same asset, or the endorsements will not match.
+ */
+public interface AssetCodec {
+
+    /**
+     * @param asset the asset to encode
+     * @return the bytes to store on the ledger
+     */
+    byte[] encode(Asset asset);
+
+    /**
+     * @param bytes the bytes read from the ledger
+     * @return the decoded asset
+     */
+    Asset decode(byte[] bytes);
+}
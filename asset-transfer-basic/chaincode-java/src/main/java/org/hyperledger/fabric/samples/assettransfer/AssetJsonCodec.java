@@ -0,0 +1,395 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+
+/**
+ * Hand written JSON codec for Asset.
+ *
+ * Encoding writes the properties in alphabetical order, byte for byte the same
+ * output Genson produces, into a per-thread buffer that is reused between
+ * calls. Decoding accepts the properties in any order, with or without
+ * whitespace, and ignores properties it does not know. Sizes and values must be
+ * integers that fit in an int.
+ */
+public final class AssetJsonCodec implements AssetCodec {
+
+    public static final AssetJsonCodec INSTANCE = new AssetJsonCodec();
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(UTF_8);
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private AssetJsonCodec() {
+    }
+
+    @Override
+    public byte[] encode(final Asset asset) {
+        Buffer out = BUFFERS.get();
+        out.reset();
+
+        out.writeAscii("{\"appraisedValue\":");
+        out.writeInt(asset.getAppraisedValue());
+        out.writeAscii(",\"assetID\":");
+        out.writeString(asset.getAssetID());
+        out.writeAscii(",\"color\":");
+        out.writeString(asset.getColor());
+        out.writeAscii(",\"owner\":");
+        out.writeString(asset.getOwner());
+        out.writeAscii(",\"size\":");
+        out.writeInt(asset.getSize());
+        out.write('}');
+
+        return out.toByteArray();
+    }
+
+    @Override
+    public Asset decode(final byte[] bytes) {
+        return new Reader(bytes).readAsset();
+    }
+
+    /**
+     * Growable byte buffer writing JSON tokens as UTF-8.
+     */
+    private static final class Buffer {
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        void write(final int b) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void writeAscii(final String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+        }
+
+        void writeInt(final int value) {
+            if (value == Integer.MIN_VALUE) {
+                writeAscii("-2147483648");
+                return;
+            }
+            ensureCapacity(11);
+            int v = value;
+            if (v < 0) {
+                bytes[length++] = '-';
+                v = -v;
+            }
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = tmp;
+            }
+        }
+
+        void writeString(final String s) {
+            if (s == null) {
+                writeAscii("null");
+                return;
+            }
+            // worst case is six bytes per char for escaped control characters
+            ensureCapacity(s.length() * 6 + 2);
+            bytes[length++] = '"';
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') {
+                    bytes[length++] = '\\';
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    writeControl(c);
+                } else if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xc0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[length++] = (byte) (0xf0 | (cp >> 18));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // lone surrogate, encoded the same way String.getBytes(UTF_8) does
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xe0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            bytes[length++] = '"';
+        }
+
+        private void writeControl(final char c) {
+            bytes[length++] = '\\';
+            switch (c) {
+                case '\b':
+                    bytes[length++] = 'b';
+                    break;
+                case '\f':
+                    bytes[length++] = 'f';
+                    break;
+                case '\n':
+                    bytes[length++] = 'n';
+                    break;
+                case '\r':
+                    bytes[length++] = 'r';
+                    break;
+                case '\t':
+                    bytes[length++] = 't';
+                    break;
+                default:
+                    bytes[length++] = 'u';
+                    bytes[length++] = HEX[(c >> 12) & 0xf];
+                    bytes[length++] = HEX[(c >> 8) & 0xf];
+                    bytes[length++] = HEX[(c >> 4) & 0xf];
+                    bytes[length++] = HEX[c & 0xf];
+            }
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    /**
+     * Minimal JSON reader for a single Asset object.
+     */
+    private static final class Reader {
+
+        private final byte[] in;
+        private int pos;
+
+        Reader(final byte[] in) {
+            this.in = in;
+        }
+
+        Asset readAsset() {
+            String assetID = null;
+            String color = null;
+            String owner = null;
+            int size = 0;
+            int appraisedValue = 0;
+
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+                return new Asset(assetID, color, size, owner, appraisedValue);
+            }
+            while (true) {
+                String name = readString();
+                expect(':');
+                switch (name) {
+                    case "assetID":
+                        assetID = readNullableString();
+                        break;
+                    case "color":
+                        color = readNullableString();
+                        break;
+                    case "owner":
+                        owner = readNullableString();
+                        break;
+                    case "size":
+                        size = readInt();
+                        break;
+                    case "appraisedValue":
+                        appraisedValue = readInt();
+                        break;
+                    default:
+                        skipValue();
+                }
+                byte next = peek();
+                pos++;
+                if (next == '}') {
+                    break;
+                }
+                if (next != ',') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+            if (peek() != 0) {
+                throw error("unexpected content after asset");
+            }
+            return new Asset(assetID, color, size, owner, appraisedValue);
+        }
+
+        private String readNullableString() {
+            if (peek() == 'n') {
+                expectLiteral("null");
+                return null;
+            }
+            return readString();
+        }
+
+        private String readString() {
+            expect('"');
+            int start = pos;
+            while (pos < in.length && in[pos] != '"' && in[pos] != '\\') {
+                pos++;
+            }
+            if (pos < in.length && in[pos] == '"') {
+                return new String(in, start, pos++ - start, UTF_8);
+            }
+
+            StringBuilder sb = new StringBuilder(new String(in, start, pos - start, UTF_8));
+            while (pos < in.length && in[pos] != '"') {
+                if (in[pos] != '\\') {
+                    int runStart = pos;
+                    while (pos < in.length && in[pos] != '"' && in[pos] != '\\') {
+                        pos++;
+                    }
+                    sb.append(new String(in, runStart, pos - runStart, UTF_8));
+                    continue;
+                }
+                pos++;
+                if (pos >= in.length) {
+                    break;
+                }
+                byte e = in[pos++];
+                switch (e) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > in.length) {
+                            throw error("truncated unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(new String(in, pos, 4, UTF_8), 16));
+                        pos += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append((char) e);
+                        break;
+                    default:
+                        throw error("invalid escape");
+                }
+            }
+            if (pos >= in.length) {
+                throw error("unterminated string");
+            }
+            pos++;
+            return sb.toString();
+        }
+
+        private int readInt() {
+            skipWhitespace();
+            int start = pos;
+            while (pos < in.length && isNumberChar(in[pos])) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected a number");
+            }
+            String number = new String(in, start, pos - start, UTF_8);
+            try {
+                return Integer.parseInt(number);
+            } catch (NumberFormatException e) {
+                // fractions and values outside the int range are rejected, not truncated
+                throw error("expected an int, got " + number);
+            }
+        }
+
+        private void skipValue() {
+            byte next = peek();
+            if (next == '"') {
+                readString();
+            } else if (next == '{' || next == '[') {
+                int depth = 0;
+                do {
+                    byte b = peek();
+                    if (b == '"') {
+                        readString();
+                        continue;
+                    }
+                    if (b == 0) {
+                        throw error("unterminated value");
+                    }
+                    if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    pos++;
+                } while (depth > 0);
+            } else {
+                while (pos < in.length && in[pos] != ',' && in[pos] != '}') {
+                    pos++;
+                }
+            }
+        }
+
+        private boolean isNumberChar(final byte b) {
+            return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+        }
+
+        private void expectLiteral(final String literal) {
+            for (int i = 0; i < literal.length(); i++) {
+                if (pos >= in.length || in[pos++] != literal.charAt(i)) {
+                    throw error("expected " + literal);
+                }
+            }
+        }
+
+        private void expect(final char c) {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            skipWhitespace();
+            return pos < in.length ? in[pos] : 0;
+        }
+
+        private void skipWhitespace() {
+            while (pos < in.length && (in[pos] == ' ' || in[pos] == '\n' || in[pos] == '\r' || in[pos] == '\t')) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(String.format("Invalid asset JSON at offset %d: %s", pos, message));
+        }
+    }
+}
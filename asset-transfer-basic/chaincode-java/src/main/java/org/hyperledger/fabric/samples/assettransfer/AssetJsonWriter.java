@@ -0,0 +1,110 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Builds a JSON array response directly from the bytes stored on the ledger.
+ *
+ * Assets are always written to the world state as sorted JSON, so the stored
+ * values can be copied into the response as they are instead of being
+ * deserialized into Asset objects and serialized again.
+ */
+final class AssetJsonWriter {
+
+    private final ByteArrayOutputStream out;
+    private int count;
+
+    AssetJsonWriter() {
+        this.out = new ByteArrayOutputStream();
+        this.out.write('[');
+    }
+
+    /**
+     * Appends a raw JSON value to the array.
+     *
+     * @param json the JSON bytes as stored on the ledger
+     * @return this writer
+     */
+    AssetJsonWriter append(final byte[] json) {
+        if (json == null || json.length == 0) {
+            return this;
+        }
+        if (count > 0) {
+            out.write(',');
+        }
+        out.write(json, 0, json.length);
+        count++;
+        return this;
+    }
+
+    /**
+     * @return the number of values appended so far
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Closes the array and returns the complete JSON document.
+     *
+     * @return the JSON array as a string
+     */
+    String toArray() {
+        out.write(']');
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    /**
+     * Closes the array and wraps it, together with the paging information,
+     * in a JSON object with sorted keys.
+     *
+     * @param bookmark the bookmark to continue the query from
+     * @return the JSON page as a string
+     */
+    String toPage(final String bookmark) {
+        StringBuilder page = new StringBuilder();
+        page.append("{\"bookmark\":");
+        appendQuoted(page, bookmark == null ? "" : bookmark);
+        page.append(",\"fetchedRecordsCount\":").append(count);
+        page.append(",\"records\":").append(toArray());
+        page.append('}');
+        return page.toString();
+    }
+
+    static void appendQuoted(final StringBuilder sb, final String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
+
+/**
+ * Transaction scoped read-through cache of the assets in the world state.
+ *
+ * Each key is read from the peer at most once per transaction and decoded into
+ * an Asset once by the AssetCodec. Writes and deletes go straight to the stub
+ * and update the cache, so later reads in the same transaction see the value
+ * written.
+ *
+ * Writes also maintain the owner~assetID and color~assetID composite key
+ * indexes, so assets can be looked up by owner or color without a full scan.
+ */
+final class AssetStateCache {
+
+    static final String OWNER_INDEX = "owner~assetID";
+    static final String COLOR_INDEX = "color~assetID";
+
+    // an index entry only needs its key, but an empty value would delete it
+    private static final byte[] INDEX_VALUE = {0};
+
+    private final ChaincodeStub stub;
+    private final AssetCodec codec;
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    AssetStateCache(final ChaincodeStub stub) {
+        this(stub, AssetJsonCodec.INSTANCE);
+    }
+
+    AssetStateCache(final ChaincodeStub stub, final AssetCodec codec) {
+        this.stub = stub;
+        this.codec = codec;
+    }
+
+    /**
+     * Reads an asset, going to the ledger only when the key has not been seen yet.
+     *
+     * @param assetID the ID of the asset
+     * @return the asset, or null when it does not exist
+     */
+    Asset get(final String assetID) {
+        if (assets.containsKey(assetID)) {
+            return assets.get(assetID);
+        }
+
+        byte[] assetJSON = stub.getState(assetID);
+        Asset asset = null;
+        if (assetJSON != null && assetJSON.length > 0) {
+            asset = codec.decode(assetJSON);
+        }
+        assets.put(assetID, asset);
+        return asset;
+    }
+
+    /**
+     * @param assetID the ID of the asset
+     * @return true when the asset exists
+     */
+    boolean exists(final String assetID) {
+        return get(assetID) != null;
+    }
+
+    /**
+     * Writes an asset to the ledger in the form produced by the codec.
+     *
+     * @param asset the asset to write
+     */
+    void put(final Asset asset) {
+        Asset previous = get(asset.getAssetID());
+
+        stub.putState(asset.getAssetID(), codec.encode(asset));
+        assets.put(asset.getAssetID(), asset);
+
+        String oldOwner = previous == null ? null : previous.getOwner();
+        String oldColor = previous == null ? null : previous.getColor();
+        updateIndex(OWNER_INDEX, oldOwner, asset.getOwner(), asset.getAssetID());
+        updateIndex(COLOR_INDEX, oldColor, asset.getColor(), asset.getAssetID());
+    }
+
+    /**
+     * Deletes an asset from the ledger.
+     *
+     * @param assetID the ID of the asset
+     */
+    void delete(final String assetID) {
+        Asset previous = get(assetID);
+
+        stub.delState(assetID);
+        assets.put(assetID, null);
+
+        if (previous != null) {
+            updateIndex(OWNER_INDEX, previous.getOwner(), null, assetID);
+            updateIndex(COLOR_INDEX, previous.getColor(), null, assetID);
+        }
+    }
+
+    /**
+     * Writes the index entries of an asset that is already stored, for assets
+     * written before the indexes were maintained.
+     *
+     * @param asset the stored asset
+     */
+    void index(final Asset asset) {
+        updateIndex(OWNER_INDEX, null, asset.getOwner(), asset.getAssetID());
+        updateIndex(COLOR_INDEX, null, asset.getColor(), asset.getAssetID());
+    }
+
+    /**
+     * Builds the key of an index entry. The key is built locally rather than
+     * through the stub, it is the same string the peer would produce.
+     *
+     * @param index the name of the index
+     * @param value the indexed value
+     * @param assetID the ID of the asset
+     * @return the composite key of the entry
+     */
+    static String indexKey(final String index, final String value, final String assetID) {
+        return new CompositeKey(index, value, assetID).toString();
+    }
+
+    private void updateIndex(final String index, final String oldValue, final String newValue, final String assetID) {
+        if (oldValue != null && oldValue.equals(newValue)) {
+            return;
+        }
+        if (oldValue != null) {
+            stub.delState(indexKey(index, oldValue, assetID));
+        }
+        if (newValue != null) {
+            stub.putState(indexKey(index, newValue, assetID), INDEX_VALUE);
+        }
+    }
+}
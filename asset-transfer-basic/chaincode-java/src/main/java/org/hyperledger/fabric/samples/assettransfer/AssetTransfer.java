@@ -4,9 +4,12 @@
 
 package org.hyperledger.fabric.samples.assettransfer;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.logging.Logger;
 
 import org.hyperledger.fabric.contract.Context;
 import org.hyperledger.fabric.contract.ContractInterface;
@@ -18,10 +21,15 @@ import org.hyperledger.fabric.contract.annotation.License;
 import org.hyperledger.fabric.contract.annotation.Transaction;
 import org.hyperledger.fabric.shim.ChaincodeException;
 import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
 import org.hyperledger.fabric.shim.ledger.KeyValue;
 import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
 
+import com.owlike.genson.GenericType;
 import com.owlike.genson.Genson;
+import com.owlike.genson.stream.ObjectReader;
+import com.owlike.genson.stream.ValueType;
 
 @Contract(
         name = "basic",
@@ -39,11 +47,46 @@ import com.owlike.genson.Genson;
 @Default
 public final class AssetTransfer implements ContractInterface {
 
+    private static final Logger LOG = Logger.getLogger(AssetTransfer.class.getName());
+
+    static {
+        AsyncLogHandler.install();
+    }
+
+    // A constant rather than peer configuration, so every endorsing peer rejects the same batches
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final Genson genson = new Genson();
 
+    private final int maxBatchSize;
+
+    private final AssetCodec codec;
+
+    public AssetTransfer() {
+        this(MAX_BATCH_SIZE, AssetJsonCodec.INSTANCE);
+    }
+
+    AssetTransfer(final int maxBatchSize) {
+        this(maxBatchSize, AssetJsonCodec.INSTANCE);
+    }
+
+    AssetTransfer(final int maxBatchSize, final AssetCodec codec) {
+        this.maxBatchSize = maxBatchSize;
+        this.codec = codec;
+    }
+
+    @Override
+    public Context createContext(final ChaincodeStub stub) {
+        return new AssetTransferContext(stub, codec);
+    }
+
     private enum AssetTransferErrors {
         ASSET_NOT_FOUND,
-        ASSET_ALREADY_EXISTS
+        ASSET_ALREADY_EXISTS,
+        INVALID_PAGE_SIZE,
+        INVALID_BATCH,
+        BATCH_TOO_LARGE,
+        INCOMPLETE_INPUT
     }
 
     /**
@@ -53,8 +96,6 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.SUBMIT)
     public void InitLedger(final Context ctx) {
-        ChaincodeStub stub = ctx.getStub();
-
         CreateAsset(ctx, "asset1", "blue", 5, "Tomoko", 300);
         CreateAsset(ctx, "asset2", "red", 5, "Brad", 400);
         CreateAsset(ctx, "asset3", "green", 10, "Jin Soo", 500);
@@ -78,22 +119,53 @@ public final class AssetTransfer implements ContractInterface {
     @Transaction(intent = Transaction.TYPE.SUBMIT)
     public Asset CreateAsset(final Context ctx, final String assetID, final String color, final int size,
         final String owner, final int appraisedValue) {
-        ChaincodeStub stub = ctx.getStub();
+        return createAsset(getAssets(ctx), assetID, color, size, owner, appraisedValue);
+    }
 
-        if (AssetExists(ctx, assetID)) {
+    private Asset createAsset(final AssetStateCache assets, final String assetID, final String color, final int size,
+        final String owner, final int appraisedValue) {
+        if (assets.exists(assetID)) {
             String errorMessage = String.format("Asset %s already exists", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_ALREADY_EXISTS.toString());
         }
 
         Asset asset = new Asset(assetID, color, size, owner, appraisedValue);
-        //Use Genson to convert the Asset into string, sort it alphabetically and serialize it into a json string
-        String sortedJson = genson.serialize(asset);
-        stub.putStringState(assetID, sortedJson);
+        assets.put(asset);
 
         return asset;
     }
 
+    /**
+     * Creates a batch of new assets on the ledger in a single transaction.
+     *
+     * Assets that can not be created, for example because they already exist, are
+     * skipped and reported in the result; the other assets are still created.
+     *
+     * @param ctx the transaction context
+     * @param assetsJSON JSON array of the assets to create
+     * @return JSON array with the result of every asset, in input order
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public String CreateAssets(final Context ctx, final String assetsJSON) {
+        List<Asset> batch = parseBatch(assetsJSON, Asset.class);
+        AssetStateCache assets = getAssets(ctx);
+
+        List<BatchItemResult> results = new ArrayList<>(batch.size());
+        for (Asset asset : batch) {
+            try {
+                checkAssetID(asset.getAssetID());
+                createAsset(assets, asset.getAssetID(), asset.getColor(), asset.getSize(), asset.getOwner(),
+                        asset.getAppraisedValue());
+                results.add(new BatchItemResult(asset.getAssetID(), BatchItemResult.OK, ""));
+            } catch (ChaincodeException e) {
+                results.add(failedItem(asset.getAssetID(), e));
+            }
+        }
+
+        return genson.serialize(results);
+    }
+
     /**
      * Retrieves an asset with the specified ID from the ledger.
      *
@@ -103,16 +175,14 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.EVALUATE)
     public Asset ReadAsset(final Context ctx, final String assetID) {
-        ChaincodeStub stub = ctx.getStub();
-        String assetJSON = stub.getStringState(assetID);
+        Asset asset = getAssets(ctx).get(assetID);
 
-        if (assetJSON == null || assetJSON.isEmpty()) {
+        if (asset == null) {
             String errorMessage = String.format("Asset %s does not exist", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
 
-        Asset asset = genson.deserialize(assetJSON, Asset.class);
         return asset;
     }
 
@@ -130,18 +200,16 @@ public final class AssetTransfer implements ContractInterface {
     @Transaction(intent = Transaction.TYPE.SUBMIT)
     public Asset UpdateAsset(final Context ctx, final String assetID, final String color, final int size,
         final String owner, final int appraisedValue) {
-        ChaincodeStub stub = ctx.getStub();
+        AssetStateCache assets = getAssets(ctx);
 
-        if (!AssetExists(ctx, assetID)) {
+        if (!assets.exists(assetID)) {
             String errorMessage = String.format("Asset %s does not exist", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
 
         Asset newAsset = new Asset(assetID, color, size, owner, appraisedValue);
-        //Use Genson to convert the Asset into string, sort it alphabetically and serialize it into a json string
-        String sortedJson = genson.serialize(newAsset);
-        stub.putStringState(assetID, sortedJson);
+        assets.put(newAsset);
         return newAsset;
     }
 
@@ -153,15 +221,15 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.SUBMIT)
     public void DeleteAsset(final Context ctx, final String assetID) {
-        ChaincodeStub stub = ctx.getStub();
+        AssetStateCache assets = getAssets(ctx);
 
-        if (!AssetExists(ctx, assetID)) {
+        if (!assets.exists(assetID)) {
             String errorMessage = String.format("Asset %s does not exist", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
 
-        stub.delState(assetID);
+        assets.delete(assetID);
     }
 
     /**
@@ -173,10 +241,7 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.EVALUATE)
     public boolean AssetExists(final Context ctx, final String assetID) {
-        ChaincodeStub stub = ctx.getStub();
-        String assetJSON = stub.getStringState(assetID);
-
-        return (assetJSON != null && !assetJSON.isEmpty());
+        return getAssets(ctx).exists(assetID);
     }
 
     /**
@@ -189,25 +254,54 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.SUBMIT)
     public Asset TransferAsset(final Context ctx, final String assetID, final String newOwner) {
-        ChaincodeStub stub = ctx.getStub();
-        String assetJSON = stub.getStringState(assetID);
+        return transferAsset(getAssets(ctx), assetID, newOwner);
+    }
 
-        if (assetJSON == null || assetJSON.isEmpty()) {
+    private Asset transferAsset(final AssetStateCache assets, final String assetID, final String newOwner) {
+        Asset asset = assets.get(assetID);
+
+        if (asset == null) {
             String errorMessage = String.format("Asset %s does not exist", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
 
-        Asset asset = genson.deserialize(assetJSON, Asset.class);
-
         Asset newAsset = new Asset(asset.getAssetID(), asset.getColor(), asset.getSize(), newOwner, asset.getAppraisedValue());
-        //Use a Genson to conver the Asset into string, sort it alphabetically and serialize it into a json string
-        String sortedJson = genson.serialize(newAsset);
-        stub.putStringState(assetID, sortedJson);
+        assets.put(newAsset);
 
         return newAsset;
     }
 
+    /**
+     * Changes the owner of a batch of assets in a single transaction.
+     *
+     * Transfers of assets that do not exist are skipped and reported in the result;
+     * the other transfers are still applied.
+     *
+     * @param ctx the transaction context
+     * @param transfersJSON JSON array of objects holding an assetID and a newOwner
+     * @return JSON array with the result of every transfer, in input order
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public String TransferAssets(final Context ctx, final String transfersJSON) {
+        List<OwnerTransfer> transfers = parseBatch(transfersJSON, OwnerTransfer.class);
+
+        AssetStateCache assets = getAssets(ctx);
+
+        List<BatchItemResult> results = new ArrayList<>(transfers.size());
+        for (OwnerTransfer transfer : transfers) {
+            try {
+                checkAssetID(transfer.getAssetID());
+                transferAsset(assets, transfer.getAssetID(), transfer.getNewOwner());
+                results.add(new BatchItemResult(transfer.getAssetID(), BatchItemResult.OK, ""));
+            } catch (ChaincodeException e) {
+                results.add(failedItem(transfer.getAssetID(), e));
+            }
+        }
+
+        return genson.serialize(results);
+    }
+
     /**
      * Retrieves all assets from the ledger.
      *
@@ -226,14 +320,206 @@ public final class AssetTransfer implements ContractInterface {
         // then getStateByRange will retrieve asset with keys between asset0 (inclusive) and asset9 (exclusive) in lexical order.
         QueryResultsIterator<KeyValue> results = stub.getStateByRange("", "");
 
-        for (KeyValue result: results) {
-            Asset asset = genson.deserialize(result.getStringValue(), Asset.class);
-            System.out.println(asset);
-            queryResults.add(asset);
+        try {
+            for (KeyValue result: results) {
+                Asset asset = genson.deserialize(result.getStringValue(), Asset.class);
+                queryResults.add(asset);
+            }
+        } finally {
+            closeResults(results);
         }
 
         final String response = genson.serialize(queryResults);
 
         return response;
     }
+
+    /**
+     * Retrieves all assets with the given owner, using the owner~assetID index
+     * so only the matching assets are read. Assets written before the index
+     * existed are only found once IndexAssets has been run over them.
+     *
+     * @param ctx the transaction context
+     * @param owner the owner to look for
+     * @return array of assets owned by the owner
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public String GetAssetsByOwner(final Context ctx, final String owner) {
+        return getAssetsByIndex(ctx, AssetStateCache.OWNER_INDEX, owner);
+    }
+
+    /**
+     * Retrieves all assets with the given color, using the color~assetID index
+     * so only the matching assets are read. Assets written before the index
+     * existed are only found once IndexAssets has been run over them.
+     *
+     * @param ctx the transaction context
+     * @param color the color to look for
+     * @return array of assets with the color
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public String GetAssetsByColor(final Context ctx, final String color) {
+        return getAssetsByIndex(ctx, AssetStateCache.COLOR_INDEX, color);
+    }
+
+    /**
+     * Adds the owner~assetID and color~assetID index entries of assets that were
+     * written by an earlier version of this chaincode, which did not maintain them.
+     *
+     * A ledger with many assets is indexed over several transactions: call this
+     * with an empty start key first, then with the key returned by the previous
+     * call until an empty string is returned. Running it again over assets that
+     * are already indexed rewrites the same entries.
+     *
+     * @param ctx the transaction context
+     * @param startKey the asset ID to start from, or an empty string to start at the first asset
+     * @param limit the maximum number of assets to index in this transaction
+     * @return the asset ID to start the next call from, or an empty string when every asset is indexed
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public String IndexAssets(final Context ctx, final String startKey, final int limit) {
+        ChaincodeStub stub = ctx.getStub();
+
+        if (limit <= 0) {
+            String errorMessage = String.format("Page size %d must be a positive integer", limit);
+            throw new ChaincodeException(errorMessage, AssetTransferErrors.INVALID_PAGE_SIZE.toString());
+        }
+
+        AssetStateCache assets = getAssets(ctx);
+        QueryResultsIterator<KeyValue> results = stub.getStateByRange(startKey == null ? "" : startKey, "");
+        try {
+            int indexed = 0;
+            for (KeyValue result: results) {
+                if (indexed == limit) {
+                    return result.getKey();
+                }
+                assets.index(codec.decode(result.getValue()));
+                indexed++;
+            }
+        } finally {
+            closeResults(results);
+        }
+
+        return "";
+    }
+
+    /**
+     * Retrieves one page of assets from the ledger.
+     *
+     * The stored asset JSON is copied into the response without being deserialized,
+     * so the memory used by the response only depends on the page size.
+     *
+     * @param ctx the transaction context
+     * @param pageSize the maximum number of assets to return
+     * @param bookmark the bookmark returned by the previous page, or an empty string for the first page
+     * @return JSON object holding the assets found and the bookmark of the next page
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public String GetAllAssetsWithPagination(final Context ctx, final int pageSize, final String bookmark) {
+        ChaincodeStub stub = ctx.getStub();
+
+        if (pageSize <= 0) {
+            String errorMessage = String.format("Page size %d must be a positive integer", pageSize);
+            throw new ChaincodeException(errorMessage, AssetTransferErrors.INVALID_PAGE_SIZE.toString());
+        }
+
+        QueryResultsIteratorWithMetadata<KeyValue> results =
+                stub.getStateByRangeWithPagination("", "", pageSize, bookmark == null ? "" : bookmark);
+
+        AssetJsonWriter writer = new AssetJsonWriter();
+        try {
+            for (KeyValue result: results) {
+                writer.append(result.getValue());
+            }
+        } finally {
+            closeResults(results);
+        }
+
+        String nextBookmark = results.getMetadata() == null ? "" : results.getMetadata().getBookmark();
+        return writer.toPage(nextBookmark);
+    }
+
+    private String getAssetsByIndex(final Context ctx, final String index, final String value) {
+        ChaincodeStub stub = ctx.getStub();
+
+        AssetJsonWriter writer = new AssetJsonWriter();
+        QueryResultsIterator<KeyValue> results = stub.getStateByPartialCompositeKey(index, value);
+        try {
+            for (KeyValue result: results) {
+                // the asset ID is the last attribute of the index entry key
+                List<String> attributes = CompositeKey.parseCompositeKey(result.getKey()).getAttributes();
+                byte[] assetJSON = stub.getState(attributes.get(attributes.size() - 1));
+                if (assetJSON != null && assetJSON.length > 0) {
+                    writer.append(assetJSON);
+                }
+            }
+        } finally {
+            closeResults(results);
+        }
+
+        return writer.toArray();
+    }
+
+    /**
+     * Reads the items of a batch one at a time, so a batch that is too large is rejected once
+     * the item after the maximum is reached rather than after reading all of it.
+     */
+    private <T> List<T> parseBatch(final String json, final Class<T> type) {
+        List<T> items = new ArrayList<>();
+        try {
+            ObjectReader reader = genson.createReader(new StringReader(json));
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.next() == ValueType.NULL) {
+                    throw invalidBatch("Batch must be a JSON array of objects");
+                }
+                if (items.size() == maxBatchSize) {
+                    String errorMessage = String.format("Batch exceeds the maximum of %d items", maxBatchSize);
+                    LOG.info(errorMessage);
+                    throw new ChaincodeException(errorMessage, AssetTransferErrors.BATCH_TOO_LARGE.toString());
+                }
+                items.add(genson.deserialize(GenericType.of(type), reader, new com.owlike.genson.Context(genson)));
+            }
+            reader.endArray();
+        } catch (ChaincodeException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw invalidBatch(String.format("Batch is not a valid JSON array: %s", e.getMessage()));
+        }
+
+        return items;
+    }
+
+    private static ChaincodeException invalidBatch(final String errorMessage) {
+        LOG.info(errorMessage);
+        return new ChaincodeException(errorMessage, AssetTransferErrors.INVALID_BATCH.toString());
+    }
+
+    private static void checkAssetID(final String assetID) {
+        if (assetID == null || assetID.isEmpty()) {
+            throw new ChaincodeException("Asset ID must be set", AssetTransferErrors.INCOMPLETE_INPUT.toString());
+        }
+    }
+
+    private BatchItemResult failedItem(final String assetID, final ChaincodeException e) {
+        byte[] payload = e.getPayload();
+        String status = payload == null ? AssetTransferErrors.INVALID_BATCH.toString() : new String(payload, UTF_8);
+        return new BatchItemResult(assetID, status, e.getMessage());
+    }
+
+    private AssetStateCache getAssets(final Context ctx) {
+        if (ctx instanceof AssetTransferContext) {
+            return ((AssetTransferContext) ctx).getAssets();
+        }
+        // contexts not created by this contract get a cache of their own for the call
+        return new AssetStateCache(ctx.getStub(), codec);
+    }
+
+    private void closeResults(final AutoCloseable results) {
+        try {
+            results.close();
+        } catch (Exception e) {
+            throw new ChaincodeException("Failed to close query results", e);
+        }
+    }
 }
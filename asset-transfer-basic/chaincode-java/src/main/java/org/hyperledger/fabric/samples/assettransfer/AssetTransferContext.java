@@ -0,0 +1,30 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.shim.ChaincodeStub;
+
+/**
+ * Transaction context of the asset transfer contract. It holds the assets read
+ * and written during the transaction so each key costs a single call to the peer.
+ */
+public final class AssetTransferContext extends Context {
+
+    private final AssetStateCache assets;
+
+    public AssetTransferContext(final ChaincodeStub stub) {
+        this(stub, AssetJsonCodec.INSTANCE);
+    }
+
+    public AssetTransferContext(final ChaincodeStub stub, final AssetCodec codec) {
+        super(stub);
+        this.assets = new AssetStateCache(stub, codec);
+    }
+
+    AssetStateCache getAssets() {
+        return assets;
+    }
+}
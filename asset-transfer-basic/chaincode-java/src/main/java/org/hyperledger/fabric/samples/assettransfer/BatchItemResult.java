@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import java.util.Objects;
+
+import org.hyperledger.fabric.contract.annotation.DataType;
+import org.hyperledger.fabric.contract.annotation.Property;
+
+import com.owlike.genson.annotation.JsonProperty;
+
+/**
+ * Outcome of a single item of a batch transaction.
+ */
+@DataType()
+public final class BatchItemResult {
+
+    static final String OK = "OK";
+
+    @Property()
+    private final String assetID;
+
+    @Property()
+    private final String status;
+
+    @Property()
+    private final String message;
+
+    public String getAssetID() {
+        return assetID;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public BatchItemResult(@JsonProperty("assetID") final String assetID, @JsonProperty("status") final String status,
+            @JsonProperty("message") final String message) {
+        this.assetID = assetID;
+        this.status = status;
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        BatchItemResult other = (BatchItemResult) obj;
+
+        return Objects.equals(getAssetID(), other.getAssetID())
+                && Objects.equals(getStatus(), other.getStatus())
+                && Objects.equals(getMessage(), other.getMessage());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getAssetID(), getStatus(), getMessage());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "@" + Integer.toHexString(hashCode()) + " [assetID=" + assetID + ", status="
+                + status + ", message=" + message + "]";
+    }
+}
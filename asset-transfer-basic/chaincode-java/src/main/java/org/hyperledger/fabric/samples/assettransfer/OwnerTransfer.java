@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import org.hyperledger.fabric.contract.annotation.DataType;
+import org.hyperledger.fabric.contract.annotation.Property;
+
+import com.owlike.genson.annotation.JsonProperty;
+
+/**
+ * A single change of owner requested through TransferAssets.
+ */
+@DataType()
+public final class OwnerTransfer {
+
+    @Property()
+    private final String assetID;
+
+    @Property()
+    private final String newOwner;
+
+    public String getAssetID() {
+        return assetID;
+    }
+
+    public String getNewOwner() {
+        return newOwner;
+    }
+
+    public OwnerTransfer(@JsonProperty("assetID") final String assetID, @JsonProperty("newOwner") final String newOwner) {
+        this.assetID = assetID;
+        this.newOwner = newOwner;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.owlike.genson.Genson;
+
+public final class AssetJsonCodecTest {
+
+    private final AssetCodec codec = AssetJsonCodec.INSTANCE;
+
+    @Nested
+    class Encode {
+
+        @Test
+        public void writesSortedJson() {
+            Asset asset = new Asset("asset1", "blue", 5, "Tomoko", 300);
+
+            assertThat(new String(codec.encode(asset), UTF_8))
+                    .isEqualTo("{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}");
+        }
+
+        @Test
+        public void matchesGenson() {
+            Genson genson = new Genson();
+            Asset[] assets = {
+                new Asset("asset1", "blue", 5, "Tomoko", 300),
+                new Asset("asset2", "quote \" and \\ slash", -45, "Siobhán", Integer.MIN_VALUE),
+                new Asset("asset3", "tab\tnew line\n", Integer.MAX_VALUE, "é中😀", 0),
+                new Asset("asset4", "\u0000\u0001\b\f\r\u001f", 1, "\"\\/", 2)
+            };
+
+            for (Asset asset : assets) {
+                assertThat(codec.encode(asset)).isEqualTo(genson.serializeBytes(asset))
+                        .isEqualTo(genson.serialize(asset).getBytes(UTF_8));
+            }
+        }
+    }
+
+    @Nested
+    class Decode {
+
+        @Test
+        public void readsAnyPropertyOrder() {
+            byte[] json = ("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", "
+                    + "\"appraisedValue\": 300 }").getBytes(UTF_8);
+
+            assertThat(codec.decode(json)).isEqualTo(new Asset("asset1", "blue", 5, "Tomoko", 300));
+        }
+
+        @Test
+        public void ignoresUnknownProperties() {
+            byte[] json = ("{\"docType\":\"asset\",\"extra\":[1,{\"a\":\"}\"}],\"assetID\":\"asset1\",\"color\":\"blue\","
+                    + "\"size\":5,\"owner\":\"Tomoko\",\"appraisedValue\":300}").getBytes(UTF_8);
+
+            assertThat(codec.decode(json)).isEqualTo(new Asset("asset1", "blue", 5, "Tomoko", 300));
+        }
+
+        @Test
+        public void roundTrips() {
+            Asset asset = new Asset("asset2", "quote \" and \\ slash\u0001", -45, "Siobhán 😀", 400);
+
+            assertThat(codec.decode(codec.encode(asset))).isEqualTo(asset);
+        }
+
+        @Test
+        public void matchesGensonOnEscapes() {
+            Genson genson = new Genson();
+            String[] values = {
+                "\\\"quoted\\\"",
+                "back\\\\slash and \\/slash",
+                "\\u00e9\\u4e2d\\ud83d\\ude00",
+                "\\u0000\\u0001\\b\\f\\n\\r\\t\\u001F",
+                "raw é中😀"
+            };
+
+            for (String value : values) {
+                String json = "{\"assetID\":\"" + value + "\",\"color\":\"blue\",\"size\":5,\"owner\":\"" + value
+                        + "\",\"appraisedValue\":300}";
+
+                assertThat(codec.decode(json.getBytes(UTF_8))).isEqualTo(genson.deserialize(json, Asset.class));
+            }
+        }
+
+        @Test
+        public void rejectsInvalidEscape() {
+            Throwable thrown = catchThrowable(() -> {
+                codec.decode("{\"assetID\":\"asset\\x1\"}".getBytes(UTF_8));
+            });
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        public void rejectsNonIntegralNumbers() {
+            Throwable thrown = catchThrowable(() -> {
+                codec.decode("{\"assetID\":\"asset1\",\"size\":5.5}".getBytes(UTF_8));
+            });
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("expected an int, got 5.5");
+        }
+
+        @Test
+        public void rejectsNumbersOutsideIntRange() {
+            Throwable thrown = catchThrowable(() -> {
+                codec.decode("{\"assetID\":\"asset1\",\"appraisedValue\":2147483648}".getBytes(UTF_8));
+            });
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("expected an int, got 2147483648");
+        }
+
+        @Test
+        public void rejectsInvalidJson() {
+            Throwable thrown = catchThrowable(() -> {
+                codec.decode("{\"assetID\":\"asset1\"".getBytes(UTF_8));
+            });
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public final class AssetJsonWriterTest {
+
+    @Nested
+    class Array {
+
+        @Test
+        public void isEmptyWithoutValues() {
+            AssetJsonWriter writer = new AssetJsonWriter();
+
+            assertThat(writer.toArray()).isEqualTo("[]");
+            assertThat(writer.getCount()).isEqualTo(0);
+        }
+
+        @Test
+        public void copiesValuesAsStored() {
+            AssetJsonWriter writer = new AssetJsonWriter();
+
+            writer.append("{\"a\":1}".getBytes()).append(new byte[0]).append("{\"b\":2}".getBytes());
+
+            assertThat(writer.toArray()).isEqualTo("[{\"a\":1},{\"b\":2}]");
+            assertThat(writer.getCount()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class Page {
+
+        @Test
+        public void escapesBookmark() {
+            AssetJsonWriter writer = new AssetJsonWriter();
+
+            writer.append("{\"a\":1}".getBytes());
+
+            assertThat(writer.toPage("a\"b\\c\u0000"))
+                    .isEqualTo("{\"bookmark\":\"a\\\"b\\\\c\\u0000\",\"fetchedRecordsCount\":1,\"records\":[{\"a\":1}]}");
+        }
+
+        @Test
+        public void treatsMissingBookmarkAsEmpty() {
+            AssetJsonWriter writer = new AssetJsonWriter();
+
+            assertThat(writer.toPage(null)).isEqualTo("{\"bookmark\":\"\",\"fetchedRecordsCount\":0,\"records\":[]}");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.assettransfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public final class AssetStateCacheTest {
+
+    @Nested
+    class Read {
+
+        @Test
+        public void readsEachKeyOnce() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assertThat(assets.exists("asset1")).isTrue();
+            assertThat(assets.get("asset1")).isEqualTo(new Asset("asset1", "blue", 5, "Tomoko", 300));
+
+            verify(stub, times(1)).getState("asset1");
+        }
+
+        @Test
+        public void remembersMissingKeys() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assertThat(assets.exists("asset1")).isFalse();
+            assertThat(assets.get("asset1")).isNull();
+
+            verify(stub, times(1)).getState("asset1");
+        }
+    }
+
+    @Nested
+    class Write {
+
+        @Test
+        public void putIsVisibleWithoutAnotherRead() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            AssetStateCache assets = new AssetStateCache(stub);
+            Asset asset = new Asset("asset1", "blue", 5, "Tomoko", 300);
+
+            assets.put(asset);
+
+            assertThat(assets.get("asset1")).isEqualTo(asset);
+            verify(stub).putState("asset1",
+                    "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}".getBytes(UTF_8));
+            verify(stub, times(1)).getState("asset1");
+        }
+
+        @Test
+        public void deleteIsVisibleWithoutAnotherRead() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assets.delete("asset1");
+
+            assertThat(assets.exists("asset1")).isFalse();
+            verify(stub).delState("asset1");
+            verify(stub, times(1)).getState("asset1");
+        }
+    }
+
+    @Nested
+    class Index {
+
+        private final String tomoko = AssetStateCache.indexKey(AssetStateCache.OWNER_INDEX, "Tomoko", "asset1");
+        private final String brad = AssetStateCache.indexKey(AssetStateCache.OWNER_INDEX, "Brad", "asset1");
+        private final String blue = AssetStateCache.indexKey(AssetStateCache.COLOR_INDEX, "blue", "asset1");
+
+        @Test
+        public void createAddsEntries() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assets.put(new Asset("asset1", "blue", 5, "Tomoko", 300));
+
+            verify(stub).putState(tomoko, new byte[] {0});
+            verify(stub).putState(blue, new byte[] {0});
+            verify(stub, never()).delState(anyString());
+        }
+
+        @Test
+        public void updateMovesChangedEntries() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(stub.getState("asset1"))
+                    .thenReturn("{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}".getBytes(UTF_8));
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assets.put(new Asset("asset1", "blue", 5, "Brad", 300));
+
+            verify(stub).delState(tomoko);
+            verify(stub).putState(brad, new byte[] {0});
+            verify(stub, never()).putState(eq(blue), any());
+            verify(stub, never()).delState(blue);
+        }
+
+        @Test
+        public void deleteRemovesEntries() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(stub.getState("asset1"))
+                    .thenReturn("{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}".getBytes(UTF_8));
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assets.delete("asset1");
+
+            verify(stub).delState("asset1");
+            verify(stub).delState(tomoko);
+            verify(stub).delState(blue);
+        }
+
+        @Test
+        public void indexWritesEntriesOfStoredAsset() {
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            AssetStateCache assets = new AssetStateCache(stub);
+
+            assets.index(new Asset("asset1", "blue", 5, "Tomoko", 300));
+
+            verify(stub).putState(tomoko, new byte[] {0});
+            verify(stub).putState(blue, new byte[] {0});
+            verify(stub, never()).putState(eq("asset1"), any());
+            verify(stub, never()).delState(anyString());
+        }
+
+        @Test
+        public void keyIsComposite() {
+            assertThat(tomoko).isEqualTo("\u0000owner~assetID\u0000Tomoko\u0000asset1\u0000");
+        }
+    }
+}
@@ -4,10 +4,15 @@
 
 package org.hyperledger.fabric.samples.assettransfer;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -16,10 +21,13 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.protos.peer.ChaincodeShim;
 import org.hyperledger.fabric.shim.ChaincodeException;
 import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
 import org.hyperledger.fabric.shim.ledger.KeyValue;
 import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
@@ -89,6 +97,43 @@ public final class AssetTransferTest {
 
     }
 
+    private final class MockAssetResultsIteratorWithMetadata implements QueryResultsIteratorWithMetadata<KeyValue> {
+
+        private final List<KeyValue> assetList;
+        private final String bookmark;
+
+        MockAssetResultsIteratorWithMetadata(final String bookmark) {
+            super();
+
+            this.bookmark = bookmark;
+            assetList = new ArrayList<KeyValue>();
+
+            assetList.add(new MockKeyValue("asset1",
+                    "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}"));
+            assetList.add(new MockKeyValue("asset2",
+                    "{\"appraisedValue\":400,\"assetID\":\"asset2\",\"color\":\"red\",\"owner\":\"Brad\",\"size\":5}"));
+        }
+
+        @Override
+        public Iterator<KeyValue> iterator() {
+            return assetList.iterator();
+        }
+
+        @Override
+        public ChaincodeShim.QueryResponseMetadata getMetadata() {
+            return ChaincodeShim.QueryResponseMetadata.newBuilder()
+                    .setFetchedRecordsCount(assetList.size())
+                    .setBookmark(bookmark)
+                    .build();
+        }
+
+        @Override
+        public void close() throws Exception {
+            // do nothing
+        }
+
+    }
+
     @Test
     public void invokeUnknownTransaction() {
         AssetTransfer contract = new AssetTransfer();
@@ -114,8 +159,8 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1"))
-                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }");
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
 
             Asset asset = contract.ReadAsset(ctx, "asset1");
 
@@ -128,7 +173,7 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1")).thenReturn("");
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
 
             Throwable thrown = catchThrowable(() -> {
                 contract.ReadAsset(ctx, "asset1");
@@ -150,11 +195,11 @@ public final class AssetTransferTest {
         contract.InitLedger(ctx);
 
         InOrder inOrder = inOrder(stub);
-        inOrder.verify(stub).putStringState("asset1", "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}");
-        inOrder.verify(stub).putStringState("asset2", "{\"appraisedValue\":400,\"assetID\":\"asset2\",\"color\":\"red\",\"owner\":\"Brad\",\"size\":5}");
-        inOrder.verify(stub).putStringState("asset3", "{\"appraisedValue\":500,\"assetID\":\"asset3\",\"color\":\"green\",\"owner\":\"Jin Soo\",\"size\":10}");
-        inOrder.verify(stub).putStringState("asset4", "{\"appraisedValue\":600,\"assetID\":\"asset4\",\"color\":\"yellow\",\"owner\":\"Max\",\"size\":10}");
-        inOrder.verify(stub).putStringState("asset5", "{\"appraisedValue\":700,\"assetID\":\"asset5\",\"color\":\"black\",\"owner\":\"Adrian\",\"size\":15}");
+        inOrder.verify(stub).putState("asset1", "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}".getBytes(UTF_8));
+        inOrder.verify(stub).putState("asset2", "{\"appraisedValue\":400,\"assetID\":\"asset2\",\"color\":\"red\",\"owner\":\"Brad\",\"size\":5}".getBytes(UTF_8));
+        inOrder.verify(stub).putState("asset3", "{\"appraisedValue\":500,\"assetID\":\"asset3\",\"color\":\"green\",\"owner\":\"Jin Soo\",\"size\":10}".getBytes(UTF_8));
+        inOrder.verify(stub).putState("asset4", "{\"appraisedValue\":600,\"assetID\":\"asset4\",\"color\":\"yellow\",\"owner\":\"Max\",\"size\":10}".getBytes(UTF_8));
+        inOrder.verify(stub).putState("asset5", "{\"appraisedValue\":700,\"assetID\":\"asset5\",\"color\":\"black\",\"owner\":\"Adrian\",\"size\":15}".getBytes(UTF_8));
 
     }
 
@@ -167,8 +212,8 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1"))
-                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }");
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
 
             Throwable thrown = catchThrowable(() -> {
                 contract.CreateAsset(ctx, "asset1", "blue", 45, "Siobhán", 60);
@@ -185,7 +230,7 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1")).thenReturn("");
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
 
             Asset asset = contract.CreateAsset(ctx, "asset1", "blue", 45, "Siobhán", 60);
 
@@ -212,6 +257,237 @@ public final class AssetTransferTest {
 
     }
 
+    @Nested
+    class InvokeCreateAssetsTransaction {
+
+        @Test
+        public void whenSomeAssetsExist() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
+
+            String results = contract.CreateAssets(ctx, "["
+                    + "{\"assetID\":\"asset1\",\"color\":\"blue\",\"size\":5,\"owner\":\"Tomoko\",\"appraisedValue\":300},"
+                    + "{\"assetID\":\"asset7\",\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900},"
+                    + "{\"assetID\":\"asset7\",\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900}]");
+
+            assertThat(results).isEqualTo("["
+                    + "{\"assetID\":\"asset1\",\"message\":\"Asset asset1 already exists\",\"status\":\"ASSET_ALREADY_EXISTS\"},"
+                    + "{\"assetID\":\"asset7\",\"message\":\"\",\"status\":\"OK\"},"
+                    + "{\"assetID\":\"asset7\",\"message\":\"Asset asset7 already exists\",\"status\":\"ASSET_ALREADY_EXISTS\"}]");
+            verify(stub).putState("asset7",
+                    "{\"appraisedValue\":900,\"assetID\":\"asset7\",\"color\":\"pink\",\"owner\":\"Siobhán\",\"size\":20}".getBytes(UTF_8));
+            verify(stub, never()).putState(eq("asset1"), any());
+        }
+
+        @Test
+        public void whenBatchIsTooLarge() {
+            AssetTransfer contract = new AssetTransfer(1);
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+
+            Throwable thrown = catchThrowable(() -> {
+                contract.CreateAssets(ctx, "["
+                        + "{\"assetID\":\"asset7\",\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900},"
+                        + "{\"assetID\":\"asset8\",\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900},"
+                        + "{\"assetID\":");
+            });
+
+            assertThat(thrown).isInstanceOf(ChaincodeException.class).hasNoCause()
+                    .hasMessage("Batch exceeds the maximum of 1 items");
+            assertThat(((ChaincodeException) thrown).getPayload()).isEqualTo("BATCH_TOO_LARGE".getBytes());
+            verifyZeroInteractions(stub);
+        }
+
+        @Test
+        public void whenAnAssetHasNoID() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getState("asset7")).thenReturn(new byte[0]);
+
+            String results = contract.CreateAssets(ctx, "["
+                    + "{\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900},"
+                    + "{\"assetID\":\"asset7\",\"color\":\"pink\",\"size\":20,\"owner\":\"Siobhán\",\"appraisedValue\":900}]");
+
+            assertThat(results).isEqualTo("["
+                    + "{\"assetID\":null,\"message\":\"Asset ID must be set\",\"status\":\"INCOMPLETE_INPUT\"},"
+                    + "{\"assetID\":\"asset7\",\"message\":\"\",\"status\":\"OK\"}]");
+            verify(stub).putState(eq("asset7"), any());
+        }
+
+        @Test
+        public void whenBatchIsInvalid() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+
+            Throwable thrown = catchThrowable(() -> {
+                contract.CreateAssets(ctx, "[null]");
+            });
+
+            assertThat(thrown).isInstanceOf(ChaincodeException.class).hasNoCause()
+                    .hasMessage("Batch must be a JSON array of objects");
+            assertThat(((ChaincodeException) thrown).getPayload()).isEqualTo("INVALID_BATCH".getBytes());
+        }
+    }
+
+    @Nested
+    class InvokeTransferAssetsTransaction {
+
+        @Test
+        public void whenSomeAssetsDoNotExist() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
+            when(stub.getState("asset2")).thenReturn("".getBytes(UTF_8));
+
+            String results = contract.TransferAssets(ctx,
+                    "[{\"assetID\":\"asset1\",\"newOwner\":\"Dr Evil\"},{\"assetID\":\"asset2\",\"newOwner\":\"Dr Evil\"}]");
+
+            assertThat(results).isEqualTo("["
+                    + "{\"assetID\":\"asset1\",\"message\":\"\",\"status\":\"OK\"},"
+                    + "{\"assetID\":\"asset2\",\"message\":\"Asset asset2 does not exist\",\"status\":\"ASSET_NOT_FOUND\"}]");
+            verify(stub).putState("asset1",
+                    "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Dr Evil\",\"size\":5}".getBytes(UTF_8));
+        }
+    }
+
+    @Test
+    void invokeGetAssetsByOwnerTransaction() {
+        AssetTransfer contract = new AssetTransfer();
+        Context ctx = mock(Context.class);
+        ChaincodeStub stub = mock(ChaincodeStub.class);
+        when(ctx.getStub()).thenReturn(stub);
+        QueryResultsIterator<KeyValue> index = new QueryResultsIterator<KeyValue>() {
+            @Override
+            public Iterator<KeyValue> iterator() {
+                List<KeyValue> entries = new ArrayList<KeyValue>();
+                entries.add(new MockKeyValue(new CompositeKey("owner~assetID", "Tomoko", "asset1").toString(), "\u0000"));
+                entries.add(new MockKeyValue(new CompositeKey("owner~assetID", "Tomoko", "asset3").toString(), "\u0000"));
+                return entries.iterator();
+            }
+
+            @Override
+            public void close() throws Exception {
+                // do nothing
+            }
+        };
+        when(stub.getStateByPartialCompositeKey("owner~assetID", "Tomoko")).thenReturn(index);
+        when(stub.getState("asset1"))
+                .thenReturn("{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5}".getBytes(UTF_8));
+        when(stub.getState("asset3"))
+                .thenReturn("{\"appraisedValue\":500,\"assetID\":\"asset3\",\"color\":\"green\",\"owner\":\"Tomoko\",\"size\":10}".getBytes(UTF_8));
+
+        String assets = contract.GetAssetsByOwner(ctx, "Tomoko");
+
+        assertThat(assets).isEqualTo("[{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5},"
+                + "{\"appraisedValue\":500,\"assetID\":\"asset3\",\"color\":\"green\",\"owner\":\"Tomoko\",\"size\":10}]");
+    }
+
+    @Nested
+    class InvokeIndexAssetsTransaction {
+
+        @Test
+        public void whenAllAssetsFitTheLimit() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getStateByRange("", "")).thenReturn(new MockAssetResultsIterator());
+
+            String next = contract.IndexAssets(ctx, "", 10);
+
+            assertThat(next).isEmpty();
+            verify(stub).putState(new CompositeKey("owner~assetID", "Tomoko", "asset1").toString(), new byte[] {0});
+            verify(stub).putState(new CompositeKey("color~assetID", "white", "asset6").toString(), new byte[] {0});
+            verify(stub, never()).putState(eq("asset1"), any());
+        }
+
+        @Test
+        public void whenAssetsExceedTheLimit() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getStateByRange("", "")).thenReturn(new MockAssetResultsIterator());
+
+            String next = contract.IndexAssets(ctx, "", 2);
+
+            assertThat(next).isEqualTo("asset3");
+            verify(stub).putState(new CompositeKey("owner~assetID", "Brad", "asset2").toString(), new byte[] {0});
+            verify(stub, never()).putState(eq(new CompositeKey("owner~assetID", "Jin Soo", "asset3").toString()), any());
+        }
+    }
+
+    @Test
+    void invokeGetAssetsByColorTransaction() {
+        AssetTransfer contract = new AssetTransfer();
+        Context ctx = mock(Context.class);
+        ChaincodeStub stub = mock(ChaincodeStub.class);
+        when(ctx.getStub()).thenReturn(stub);
+        when(stub.getStateByPartialCompositeKey("color~assetID", "pink")).thenReturn(new QueryResultsIterator<KeyValue>() {
+            @Override
+            public Iterator<KeyValue> iterator() {
+                return new ArrayList<KeyValue>().iterator();
+            }
+
+            @Override
+            public void close() throws Exception {
+                // do nothing
+            }
+        });
+
+        String assets = contract.GetAssetsByColor(ctx, "pink");
+
+        assertThat(assets).isEqualTo("[]");
+    }
+
+    @Nested
+    class InvokeGetAllAssetsWithPaginationTransaction {
+
+        @Test
+        public void whenPageIsReturned() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            when(stub.getStateByRangeWithPagination("", "", 2, ""))
+                    .thenReturn(new MockAssetResultsIteratorWithMetadata("asset3"));
+
+            String page = contract.GetAllAssetsWithPagination(ctx, 2, "");
+
+            assertThat(page).isEqualTo("{\"bookmark\":\"asset3\",\"fetchedRecordsCount\":2,\"records\":["
+                    + "{\"appraisedValue\":300,\"assetID\":\"asset1\",\"color\":\"blue\",\"owner\":\"Tomoko\",\"size\":5},"
+                    + "{\"appraisedValue\":400,\"assetID\":\"asset2\",\"color\":\"red\",\"owner\":\"Brad\",\"size\":5}]}");
+        }
+
+        @Test
+        public void whenPageSizeIsInvalid() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+
+            Throwable thrown = catchThrowable(() -> {
+                contract.GetAllAssetsWithPagination(ctx, 0, "");
+            });
+
+            assertThat(thrown).isInstanceOf(ChaincodeException.class).hasNoCause()
+                    .hasMessage("Page size 0 must be a positive integer");
+            assertThat(((ChaincodeException) thrown).getPayload()).isEqualTo("INVALID_PAGE_SIZE".getBytes());
+        }
+    }
+
     @Nested
     class TransferAssetTransaction {
 
@@ -221,8 +497,8 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1"))
-                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }");
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 5, \"owner\": \"Tomoko\", \"appraisedValue\": 300 }".getBytes(UTF_8));
 
             Asset asset = contract.TransferAsset(ctx, "asset1", "Dr Evil");
 
@@ -235,7 +511,7 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1")).thenReturn("");
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
 
             Throwable thrown = catchThrowable(() -> {
                 contract.TransferAsset(ctx, "asset1", "Dr Evil");
@@ -256,8 +532,8 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1"))
-                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 45, \"owner\": \"Arturo\", \"appraisedValue\": 60 }");
+            when(stub.getState("asset1"))
+                    .thenReturn("{ \"assetID\": \"asset1\", \"color\": \"blue\", \"size\": 45, \"owner\": \"Arturo\", \"appraisedValue\": 60 }".getBytes(UTF_8));
 
             Asset asset = contract.UpdateAsset(ctx, "asset1", "pink", 45, "Arturo", 600);
 
@@ -270,7 +546,7 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1")).thenReturn("");
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
 
             Throwable thrown = catchThrowable(() -> {
                 contract.TransferAsset(ctx, "asset1", "Alex");
@@ -291,7 +567,7 @@ public final class AssetTransferTest {
             Context ctx = mock(Context.class);
             ChaincodeStub stub = mock(ChaincodeStub.class);
             when(ctx.getStub()).thenReturn(stub);
-            when(stub.getStringState("asset1")).thenReturn("");
+            when(stub.getState("asset1")).thenReturn("".getBytes(UTF_8));
 
             Throwable thrown = catchThrowable(() -> {
                 contract.DeleteAsset(ctx, "asset1");
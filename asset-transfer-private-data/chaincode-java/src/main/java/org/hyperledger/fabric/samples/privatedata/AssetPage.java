@@ -0,0 +1,62 @@
+package org.hyperledger.fabric.samples.privatedata;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.hyperledger.fabric.contract.annotation.DataType;
+import org.hyperledger.fabric.contract.annotation.Property;
+
+/**
+ * A limited slice of the results of a range or rich query. When the query stopped
+ * early, continuationKey holds the key of the first asset that was not returned;
+ * it is empty once every result has been read.
+ */
+@DataType()
+public final class AssetPage {
+
+    @Property()
+    private final Asset[] records;
+
+    @Property()
+    private final String continuationKey;
+
+    public Asset[] getRecords() {
+        return records;
+    }
+
+    public String getContinuationKey() {
+        return continuationKey;
+    }
+
+    public AssetPage(final Asset[] records, final String continuationKey) {
+        this.records = records;
+        this.continuationKey = continuationKey;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+
+        AssetPage other = (AssetPage) obj;
+
+        return Arrays.equals(getRecords(), other.getRecords())
+                && Objects.equals(getContinuationKey(), other.getContinuationKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(getRecords()), getContinuationKey());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "@" + Integer.toHexString(hashCode())
+                + " [records=" + Arrays.toString(records) + ", continuationKey=" + continuationKey + "]";
+    }
+}
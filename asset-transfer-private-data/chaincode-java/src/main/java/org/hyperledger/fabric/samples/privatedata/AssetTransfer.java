@@ -20,12 +20,15 @@ import org.hyperledger.fabric.shim.ledger.CompositeKey;
 
 import org.hyperledger.fabric.shim.ledger.KeyValue;
 import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Logger;
 
 /**
  * Main Chaincode class. A ContractInterface gets converted to Chaincode internally.
@@ -60,6 +63,12 @@ import java.util.Map;
 @Default
 public final class AssetTransfer implements ContractInterface {
 
+    private static final Logger LOG = Logger.getLogger(AssetTransfer.class.getName());
+
+    static {
+        AsyncLogHandler.install();
+    }
+
     static final String ASSET_COLLECTION_NAME = "assetCollection";
     static final String AGREEMENT_KEYPREFIX = "transferAgreement";
 
@@ -67,7 +76,8 @@ public final class AssetTransfer implements ContractInterface {
         INCOMPLETE_INPUT,
         INVALID_ACCESS,
         ASSET_NOT_FOUND,
-        ASSET_ALREADY_EXISTS
+        ASSET_ALREADY_EXISTS,
+        INVALID_LIMIT
     }
 
     /**
@@ -80,11 +90,11 @@ public final class AssetTransfer implements ContractInterface {
     @Transaction(intent = Transaction.TYPE.EVALUATE)
     public Asset ReadAsset(final Context ctx, final String assetID) {
         ChaincodeStub stub = ctx.getStub();
-        System.out.printf("ReadAsset: collection %s, ID %s\n", ASSET_COLLECTION_NAME, assetID);
+        LOG.fine(() -> String.format("ReadAsset: collection %s, ID %s", ASSET_COLLECTION_NAME, assetID));
         byte[] assetJSON = stub.getPrivateData(ASSET_COLLECTION_NAME, assetID);
 
         if (assetJSON == null || assetJSON.length == 0) {
-            System.out.printf("Asset not found: ID %s\n", assetID);
+            LOG.fine(() -> String.format("Asset not found: ID %s", assetID));
             return null;
         }
 
@@ -103,12 +113,12 @@ public final class AssetTransfer implements ContractInterface {
     @Transaction(intent = Transaction.TYPE.EVALUATE)
     public AssetPrivateDetails ReadAssetPrivateDetails(final Context ctx, final String collection, final String assetID) {
         ChaincodeStub stub = ctx.getStub();
-        System.out.printf("ReadAssetPrivateDetails: collection %s, ID %s\n", collection, assetID);
+        LOG.fine(() -> String.format("ReadAssetPrivateDetails: collection %s, ID %s", collection, assetID));
         byte[] assetPrvJSON = stub.getPrivateData(collection, assetID);
 
         if (assetPrvJSON == null || assetPrvJSON.length == 0) {
             String errorMessage = String.format("AssetPrivateDetails %s does not exist in collection %s", assetID, collection);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             return null;
         }
 
@@ -128,12 +138,12 @@ public final class AssetTransfer implements ContractInterface {
         ChaincodeStub stub = ctx.getStub();
 
         CompositeKey aggKey = stub.createCompositeKey(AGREEMENT_KEYPREFIX, assetID);
-        System.out.printf("ReadTransferAgreement Get: collection %s, ID %s, Key %s\n", ASSET_COLLECTION_NAME, assetID, aggKey);
+        LOG.fine(() -> String.format("ReadTransferAgreement Get: collection %s, ID %s, Key %s", ASSET_COLLECTION_NAME, assetID, aggKey));
         byte[] buyerIdentity = stub.getPrivateData(ASSET_COLLECTION_NAME, aggKey.toString());
 
         if (buyerIdentity == null || buyerIdentity.length == 0) {
             String errorMessage = String.format("BuyerIdentity for asset %s does not exist in TransferAgreement ", assetID);
-            System.out.println(errorMessage);
+            LOG.info(errorMessage);
             return null;
         }
 
@@ -153,23 +163,34 @@ public final class AssetTransfer implements ContractInterface {
      */
     @Transaction(intent = Transaction.TYPE.EVALUATE)
     public Asset[] GetAssetByRange(final Context ctx, final String startKey, final String endKey) throws Exception {
+        return GetAssetByRangeWithLimit(ctx, startKey, endKey, 0, 0).getRecords();
+    }
+
+    /**
+     * GetAssetByRangeWithLimit performs the same range query as GetAssetByRange, but stops
+     * reading from the collection once limit assets, or maxBytes bytes of asset JSON, have
+     * been read. The rest of the range is never fetched from the peer, so a large collection
+     * can be read in slices that each fit in an endorsement.
+     *
+     * To read the next slice, call again with the returned continuation key as startKey.
+     *
+     * @param ctx      the transaction context
+     * @param startKey for ID range of the asset
+     * @param endKey   for ID range of the asset
+     * @param limit    the maximum number of assets to return, or 0 for no limit
+     * @param maxBytes the maximum number of bytes of asset JSON to return, or 0 for no limit
+     * @return the assets read and the key to continue from
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public AssetPage GetAssetByRangeWithLimit(final Context ctx, final String startKey, final String endKey,
+                                              final int limit, final int maxBytes) throws Exception {
+        checkLimits(limit, maxBytes);
         ChaincodeStub stub = ctx.getStub();
-        System.out.printf("GetAssetByRange: start %s, end %s\n", startKey, endKey);
 
-        List<Asset> queryResults = new ArrayList<>();
         // retrieve asset with keys between startKey (inclusive) and endKey(exclusive) in lexical order.
         try (QueryResultsIterator<KeyValue> results = stub.getPrivateDataByRange(ASSET_COLLECTION_NAME, startKey, endKey)) {
-            for (KeyValue result : results) {
-                if (result.getStringValue() == null || result.getStringValue().length() == 0) {
-                    System.err.printf("Invalid Asset json: %s\n", result.getStringValue());
-                    continue;
-                }
-                Asset asset = Asset.deserialize(result.getStringValue());
-                queryResults.add(asset);
-                System.out.println("QueryResult: " + asset.toString());
-            }
+            return readPage(results, limit, maxBytes);
         }
-        return queryResults.toArray(new Asset[0]);
     }
 
     // =======Rich queries =========================================================================
@@ -215,24 +236,103 @@ public final class AssetTransfer implements ContractInterface {
         return getQueryResult(ctx, queryString);
     }
 
+    /**
+     * QueryAssetsWithLimit performs the same ad hoc query as QueryAssets, but stops reading
+     * results once limit assets, or maxBytes bytes of asset JSON, have been read.
+     *
+     * To read the next slice, call again with the same query string and the returned
+     * continuation key. The query is then narrowed to keys at or after the continuation key.
+     * That only works when the results come back in key order, so the query is sorted by _id,
+     * which CouchDB serves from its primary index, and must not set its own sort or use_index.
+     *
+     * @param ctx             the transaction context
+     * @param queryString     query string matching state database syntax
+     * @param continuationKey the key returned by the previous call, or empty for the first call
+     * @param limit           the maximum number of assets to return, or 0 for no limit
+     * @param maxBytes        the maximum number of bytes of asset JSON to return, or 0 for no limit
+     * @return the assets read and the key to continue from
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public AssetPage QueryAssetsWithLimit(final Context ctx, final String queryString, final String continuationKey,
+                                          final int limit, final int maxBytes) throws Exception {
+        checkLimits(limit, maxBytes);
+        return getQueryResult(ctx, continueQuery(queryString, continuationKey), limit, maxBytes);
+    }
+
     private Asset[] getQueryResult(final Context ctx, final String queryString) throws Exception {
+        return getQueryResult(ctx, queryString, 0, 0).getRecords();
+    }
+
+    private AssetPage getQueryResult(final Context ctx, final String queryString, final int limit, final int maxBytes) throws Exception {
         ChaincodeStub stub = ctx.getStub();
-        System.out.printf("QueryAssets: %s\n", queryString);
 
-        List<Asset> queryResults = new ArrayList<Asset>();
-        // retrieve asset with keys between startKey (inclusive) and endKey(exclusive) in lexical order.
         try (QueryResultsIterator<KeyValue> results = stub.getPrivateDataQueryResult(ASSET_COLLECTION_NAME, queryString)) {
-            for (KeyValue result : results) {
-                if (result.getStringValue() == null || result.getStringValue().length() == 0) {
-                    System.err.printf("Invalid Asset json: %s\n", result.getStringValue());
-                    continue;
-                }
-                Asset asset = Asset.deserialize(result.getStringValue());
-                queryResults.add(asset);
-                System.out.println("QueryResult: " + asset.toString());
+            return readPage(results, limit, maxBytes);
+        }
+    }
+
+    private static void checkLimits(final int limit, final int maxBytes) {
+        if (limit < 0 || maxBytes < 0) {
+            String errorMessage = String.format("Limit %d and byte budget %d must not be negative", limit, maxBytes);
+            throw new ChaincodeException(errorMessage, AssetTransferErrors.INVALID_LIMIT.toString());
+        }
+    }
+
+    /**
+     * Reads assets until the limit or byte budget is reached. The first asset is always
+     * returned, even when it is larger than the budget, so every call makes progress. The
+     * next result is only looked at for its key; it is not deserialized.
+     */
+    private static AssetPage readPage(final Iterable<KeyValue> results, final int limit, final int maxBytes) {
+        List<Asset> assets = new ArrayList<>();
+        long bytes = 0;
+
+        for (KeyValue result : results) {
+            byte[] assetJSON = result.getValue();
+            if (assetJSON == null || assetJSON.length == 0) {
+                continue;
+            }
+            boolean full = (limit > 0 && assets.size() >= limit)
+                    || (maxBytes > 0 && !assets.isEmpty() && bytes + assetJSON.length > maxBytes);
+            if (full) {
+                return new AssetPage(assets.toArray(new Asset[0]), result.getKey());
             }
+            assets.add(Asset.deserialize(assetJSON));
+            bytes += assetJSON.length;
+        }
+        return new AssetPage(assets.toArray(new Asset[0]), "");
+    }
+
+    /**
+     * Sorts a query by key and narrows its selector to the keys at or after the continuation
+     * key. Every page, the first included, selects on _id, as CouchDB only sorts on a field
+     * the selector uses.
+     */
+    private static String continueQuery(final String queryString, final String continuationKey) {
+        JSONObject query;
+        try {
+            query = new JSONObject(queryString);
+        } catch (JSONException e) {
+            String errorMessage = String.format("Query %s is not a JSON object: %s", queryString, e.getMessage());
+            throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
+        }
+        if (query.has("sort") || query.has("use_index")) {
+            String errorMessage = String.format("Query %s must not set sort or use_index, its results are read in key order", queryString);
+            throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
+        }
+
+        JSONObject range = continuationKey == null || continuationKey.isEmpty()
+                ? new JSONObject().put("$gt", JSONObject.NULL)
+                : new JSONObject().put("$gte", continuationKey);
+        JSONObject from = new JSONObject().put("_id", range);
+        JSONObject selector = query.optJSONObject("selector");
+        if (selector == null) {
+            query.put("selector", from);
+        } else {
+            query.put("selector", new JSONObject().put("$and", new JSONArray().put(selector).put(from)));
         }
-        return queryResults.toArray(new Asset[0]);
+        query.put("sort", new JSONArray().put(new JSONObject().put("_id", "asc")));
+        return query.toString();
     }
 
 
@@ -250,7 +350,7 @@ public final class AssetTransfer implements ContractInterface {
         Map<String, byte[]> transientMap = ctx.getStub().getTransient();
         if (!transientMap.containsKey("asset_properties")) {
             String errorMessage = String.format("CreateAsset call must specify asset_properties in Transient map input");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -275,7 +375,7 @@ public final class AssetTransfer implements ContractInterface {
             }
         } catch (Exception err) {
             String errorMessage = String.format("TransientMap deserialized error: %s ", err);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -298,7 +398,7 @@ public final class AssetTransfer implements ContractInterface {
         }
 
         if (errorMessage != null) {
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -307,7 +407,7 @@ public final class AssetTransfer implements ContractInterface {
         byte[] assetJSON = ctx.getStub().getPrivateData(ASSET_COLLECTION_NAME, assetID);
         if (assetJSON != null && assetJSON.length > 0) {
             errorMessage = String.format("Asset %s already exists", assetID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_ALREADY_EXISTS.toString());
         }
 
@@ -321,8 +421,8 @@ public final class AssetTransfer implements ContractInterface {
 
         //Make submitting client the owner
         asset.setOwner(clientID);
-        System.out.printf("CreateAsset Put: collection %s, ID %s\n", ASSET_COLLECTION_NAME, assetID);
-        System.out.printf("Put: collection %s, ID %s\n", ASSET_COLLECTION_NAME, new String(asset.serialize()));
+        LOG.fine(() -> String.format("CreateAsset Put: collection %s, ID %s", ASSET_COLLECTION_NAME, assetID));
+        LOG.fine(() -> String.format("Put: collection %s, ID %s", ASSET_COLLECTION_NAME, new String(asset.serialize())));
         stub.putPrivateData(ASSET_COLLECTION_NAME, assetID, asset.serialize());
 
         // Get collection name for this organization.
@@ -330,7 +430,7 @@ public final class AssetTransfer implements ContractInterface {
 
         //Save AssetPrivateDetails to org collection
         AssetPrivateDetails assetPriv = new AssetPrivateDetails(assetID, appraisedValue);
-        System.out.printf("Put AssetPrivateDetails: collection %s, ID %s\n", orgCollectionName, assetID);
+        LOG.fine(() -> String.format("Put AssetPrivateDetails: collection %s, ID %s", orgCollectionName, assetID));
         stub.putPrivateData(orgCollectionName, assetID, assetPriv.serialize());
 
         return asset;
@@ -351,7 +451,7 @@ public final class AssetTransfer implements ContractInterface {
         Map<String, byte[]> transientMap = ctx.getStub().getTransient();
         if (!transientMap.containsKey("asset_value")) {
             String errorMessage = String.format("AgreeToTransfer call must specify \"asset_value\" in Transient map input");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -366,25 +466,25 @@ public final class AssetTransfer implements ContractInterface {
             assetPriv = new AssetPrivateDetails(assetID, appraisedValue);
         } catch (Exception err) {
             String errorMessage = String.format("TransientMap deserialized error %s ", err);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
         if (assetID.equals("")) {
             String errorMessage = String.format("Invalid input in Transient map: assetID");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
         if (assetPriv.getAppraisedValue() <= 0) { // appraisedValue field must be a positive integer
             String errorMessage = String.format("Input must be positive integer: appraisedValue");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
-        System.out.printf("AgreeToTransfer: verify asset %s exists\n", assetID);
+        LOG.fine(() -> String.format("AgreeToTransfer: verify asset %s exists", assetID));
         Asset existing = ReadAsset(ctx, assetID);
         if (existing == null) {
             String errorMessage = String.format("Asset does not exist in the collection: ", assetID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
         // Get collection name for this organization.
@@ -393,13 +493,13 @@ public final class AssetTransfer implements ContractInterface {
         verifyClientOrgMatchesPeerOrg(ctx);
 
         //Save AssetPrivateDetails to org collection
-        System.out.printf("Put AssetPrivateDetails: collection %s, ID %s\n", orgCollectionName, assetID);
+        LOG.fine(() -> String.format("Put AssetPrivateDetails: collection %s, ID %s", orgCollectionName, assetID));
         stub.putPrivateData(orgCollectionName, assetID, assetPriv.serialize());
 
         String clientID = ctx.getClientIdentity().getId();
         //Write the AgreeToTransfer key in assetCollection
         CompositeKey aggKey = stub.createCompositeKey(AGREEMENT_KEYPREFIX, assetID);
-        System.out.printf("AgreeToTransfer Put: collection %s, ID %s, Key %s\n", ASSET_COLLECTION_NAME, assetID, aggKey);
+        LOG.fine(() -> String.format("AgreeToTransfer Put: collection %s, ID %s, Key %s", ASSET_COLLECTION_NAME, assetID, aggKey));
         stub.putPrivateData(ASSET_COLLECTION_NAME, aggKey.toString(), clientID);
     }
 
@@ -416,7 +516,7 @@ public final class AssetTransfer implements ContractInterface {
         Map<String, byte[]> transientMap = ctx.getStub().getTransient();
         if (!transientMap.containsKey("asset_owner")) {
             String errorMessage = "TransferAsset call must specify \"asset_owner\" in Transient map input";
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -430,27 +530,27 @@ public final class AssetTransfer implements ContractInterface {
 
         } catch (Exception err) {
             String errorMessage = String.format("TransientMap deserialized error %s ", err);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
         if (assetID.equals("")) {
             String errorMessage = String.format("Invalid input in Transient map: " + "assetID");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
         if (buyerMSP.equals("")) {
             String errorMessage = String.format("Invalid input in Transient map: " + "buyerMSP");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
-        System.out.printf("TransferAsset: verify asset %s exists\n", assetID);
+        LOG.fine(() -> String.format("TransferAsset: verify asset %s exists", assetID));
         byte[] assetJSON = stub.getPrivateData(ASSET_COLLECTION_NAME, assetID);
 
         if (assetJSON == null || assetJSON.length == 0) {
             String errorMessage = String.format("Asset %s does not exist in the collection", assetID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -462,7 +562,7 @@ public final class AssetTransfer implements ContractInterface {
         TransferAgreement transferAgreement = ReadTransferAgreement(ctx, assetID);
         if (transferAgreement == null) {
             String errorMessage = String.format("TransferAgreement does not exist for asset: %s", assetID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -471,7 +571,7 @@ public final class AssetTransfer implements ContractInterface {
         thisAsset.setOwner(newOwner);
 
         //Save updated Asset to collection
-        System.out.printf("Transfer Asset: collection %s, ID %s to owner %s\n", ASSET_COLLECTION_NAME, assetID, newOwner);
+        LOG.fine(() -> String.format("Transfer Asset: collection %s, ID %s to owner %s", ASSET_COLLECTION_NAME, assetID, newOwner));
         stub.putPrivateData(ASSET_COLLECTION_NAME, assetID, thisAsset.serialize());
 
         // delete the key from owners collection
@@ -480,7 +580,7 @@ public final class AssetTransfer implements ContractInterface {
 
         //Delete the transfer agreement from the asset collection
         CompositeKey aggKey = stub.createCompositeKey(AGREEMENT_KEYPREFIX, assetID);
-        System.out.printf("AgreeToTransfer deleteKey: collection %s, ID %s, Key %s\n", ASSET_COLLECTION_NAME, assetID, aggKey);
+        LOG.fine(() -> String.format("AgreeToTransfer deleteKey: collection %s, ID %s, Key %s", ASSET_COLLECTION_NAME, assetID, aggKey));
         stub.delPrivateData(ASSET_COLLECTION_NAME, aggKey.toString());
     }
 
@@ -496,7 +596,7 @@ public final class AssetTransfer implements ContractInterface {
         Map<String, byte[]> transientMap = ctx.getStub().getTransient();
         if (!transientMap.containsKey("asset_delete")) {
             String errorMessage = String.format("DeleteAsset call must specify 'asset_delete' in Transient map input");
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
@@ -509,16 +609,16 @@ public final class AssetTransfer implements ContractInterface {
 
         } catch (Exception err) {
             String errorMessage = String.format("TransientMap deserialized error: %s ", err);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INCOMPLETE_INPUT.toString());
         }
 
-        System.out.printf("DeleteAsset: verify asset %s exists\n", assetID);
+        LOG.fine(() -> String.format("DeleteAsset: verify asset %s exists", assetID));
         byte[] assetJSON = stub.getPrivateData(ASSET_COLLECTION_NAME, assetID);
 
         if (assetJSON == null || assetJSON.length == 0) {
             String errorMessage = String.format("Asset %s does not exist", assetID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
         String ownersCollectionName = getCollectionName(ctx);
@@ -526,13 +626,13 @@ public final class AssetTransfer implements ContractInterface {
 
         if (apdJSON == null || apdJSON.length == 0) {
             String errorMessage = String.format("Failed to read asset from owner's Collection %s", ownersCollectionName);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.ASSET_NOT_FOUND.toString());
         }
         verifyClientOrgMatchesPeerOrg(ctx);
 
         // delete the key from asset collection
-        System.out.printf("DeleteAsset: collection %s, ID %s\n", ASSET_COLLECTION_NAME, assetID);
+        LOG.fine(() -> String.format("DeleteAsset: collection %s, ID %s", ASSET_COLLECTION_NAME, assetID));
         stub.delPrivateData(ASSET_COLLECTION_NAME, assetID);
 
         // Finally, delete private details of asset
@@ -577,7 +677,7 @@ public final class AssetTransfer implements ContractInterface {
 
         if (!peerMSPID.equals(clientMSPID)) {
             String errorMessage = String.format("Client from org %s is not authorized to read or write private data from an org %s peer", clientMSPID, peerMSPID);
-            System.err.println(errorMessage);
+            LOG.info(errorMessage);
             throw new ChaincodeException(errorMessage, AssetTransferErrors.INVALID_ACCESS.toString());
         }
     }
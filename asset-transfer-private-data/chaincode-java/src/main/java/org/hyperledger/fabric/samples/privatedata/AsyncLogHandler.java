@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.privatedata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Log handler that hands records to a background thread, so a transaction never
+ * waits on the console while it logs.
+ *
+ * The queue is bounded. When it is full, records are dropped and counted rather
+ * than blocking the caller, and the number dropped is logged once there is room.
+ * Records below the level of the wrapped handler are discarded before they are
+ * queued. Closing the handler writes every record queued before the close.
+ */
+final class AsyncLogHandler extends Handler {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    // queued by close() behind the last record, the worker stops when it takes it
+    private static final LogRecord END = new LogRecord(Level.OFF, "");
+
+    private final Handler target;
+    private final BlockingQueue<LogRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    AsyncLogHandler(final Handler target, final int capacity) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        setLevel(target.getLevel());
+        worker = new Thread(this::drain, "async-log-handler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Routes everything the root logger publishes through an AsyncLogHandler.
+     * Calling it more than once has no further effect. Handlers installed by
+     * the copy of this class in another contract are matched by name, so two
+     * contracts in one JVM do not wrap each other's handlers.
+     */
+    static synchronized void install() {
+        Logger root = Logger.getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            if (!isAsync(handler)) {
+                root.removeHandler(handler);
+                root.addHandler(new AsyncLogHandler(handler, DEFAULT_CAPACITY));
+            }
+        }
+    }
+
+    static boolean isAsync(final Handler handler) {
+        return handler.getClass().getSimpleName().equals(AsyncLogHandler.class.getSimpleName());
+    }
+
+    @Override
+    public void publish(final LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // the caller is found by walking the stack, which only works on this thread
+        record.getSourceClassName();
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void flush() {
+        target.flush();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // the worker is still taking records, so this only waits for room
+            queue.put(END);
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // records that raced the close, or all of them when the wait above was interrupted
+        List<LogRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.stream().filter(record -> record != END).forEach(this::write);
+        reportDropped();
+        target.close();
+    }
+
+    private void drain() {
+        try {
+            for (LogRecord record = queue.take(); record != END; record = queue.take()) {
+                write(record);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final LogRecord record) {
+        reportDropped();
+        try {
+            target.publish(record);
+        } catch (RuntimeException e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            target.publish(new LogRecord(Level.WARNING, count + " log records dropped, the log queue was full"));
+        }
+    }
+}
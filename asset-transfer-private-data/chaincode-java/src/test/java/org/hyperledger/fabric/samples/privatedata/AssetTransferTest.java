@@ -10,6 +10,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hyperledger.fabric.samples.privatedata.AssetTransfer.AGREEMENT_KEYPREFIX;
 import static org.hyperledger.fabric.samples.privatedata.AssetTransfer.ASSET_COLLECTION_NAME;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -17,13 +19,19 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.security.cert.CertificateException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.hyperledger.fabric.contract.ClientIdentity;
 import org.hyperledger.fabric.contract.Context;
 import org.hyperledger.fabric.shim.ChaincodeException;
 import org.hyperledger.fabric.shim.ChaincodeStub;
 import org.hyperledger.fabric.shim.ledger.CompositeKey;
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -160,6 +168,164 @@ public final class AssetTransferTest {
 
     }
 
+    @Nested
+    class QueryRangeTransaction {
+
+        @Test
+        public void whenRangeFitsInLimit() throws Exception {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            AssetResults results = new AssetResults("asset1", "asset2");
+            when(stub.getPrivateDataByRange(ASSET_COLLECTION_NAME, "asset1", "asset9")).thenReturn(results);
+
+            AssetPage page = contract.GetAssetByRangeWithLimit(ctx, "asset1", "asset9", 5, 0);
+
+            assertThat(page.getRecords()).containsExactly(testAsset("asset1"), testAsset("asset2"));
+            assertThat(page.getContinuationKey()).isEmpty();
+            assertThat(results.closed).isTrue();
+        }
+
+        @Test
+        public void whenLimitIsReached() throws Exception {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            AssetResults results = new AssetResults("asset1", "asset2", "asset3", "asset4");
+            when(stub.getPrivateDataByRange(ASSET_COLLECTION_NAME, "asset1", "asset9")).thenReturn(results);
+
+            AssetPage page = contract.GetAssetByRangeWithLimit(ctx, "asset1", "asset9", 2, 0);
+
+            assertThat(page.getRecords()).containsExactly(testAsset("asset1"), testAsset("asset2"));
+            assertThat(page.getContinuationKey()).isEqualTo("asset3");
+            assertThat(results.read).isEqualTo(3);
+            assertThat(results.closed).isTrue();
+        }
+
+        @Test
+        public void whenByteBudgetIsReached() throws Exception {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            AssetResults results = new AssetResults("asset1", "asset2", "asset3");
+            when(stub.getPrivateDataByRange(ASSET_COLLECTION_NAME, "asset1", "asset9")).thenReturn(results);
+
+            AssetPage page = contract.GetAssetByRangeWithLimit(ctx, "asset1", "asset9", 0, 1);
+
+            assertThat(page.getRecords()).containsExactly(testAsset("asset1"));
+            assertThat(page.getContinuationKey()).isEqualTo("asset2");
+            assertThat(results.read).isEqualTo(2);
+        }
+
+        @Test
+        public void whenLimitIsNegative() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+
+            Throwable thrown = catchThrowable(() -> {
+                contract.GetAssetByRangeWithLimit(ctx, "asset1", "asset9", -1, 0);
+            });
+
+            assertThat(thrown).isInstanceOf(ChaincodeException.class).hasNoCause()
+                    .hasMessage("Limit -1 and byte budget 0 must not be negative");
+            assertThat(((ChaincodeException) thrown).getPayload()).isEqualTo("INVALID_LIMIT".getBytes());
+            verifyZeroInteractions(ctx);
+        }
+
+        @Test
+        public void whenQueryContinues() throws Exception {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            AssetResults results = new AssetResults("asset3", "asset4");
+            when(stub.getPrivateDataQueryResult(eq(ASSET_COLLECTION_NAME), argThat(query -> new JSONObject(query).similar(new JSONObject(
+                    "{\"selector\":{\"$and\":[{\"owner\":\"testOrg1User\"},{\"_id\":{\"$gte\":\"asset3\"}}]},\"sort\":[{\"_id\":\"asc\"}]}")))))
+                    .thenReturn(results);
+
+            AssetPage page = contract.QueryAssetsWithLimit(ctx, "{\"selector\":{\"owner\":\"testOrg1User\"}}", "asset3", 1, 0);
+
+            assertThat(page.getRecords()).containsExactly(testAsset("asset3"));
+            assertThat(page.getContinuationKey()).isEqualTo("asset4");
+        }
+
+        @Test
+        public void whenQueryStartsItIsSortedByKey() throws Exception {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+            ChaincodeStub stub = mock(ChaincodeStub.class);
+            when(ctx.getStub()).thenReturn(stub);
+            AssetResults results = new AssetResults("asset1", "asset2");
+            when(stub.getPrivateDataQueryResult(eq(ASSET_COLLECTION_NAME), argThat(query -> new JSONObject(query).similar(new JSONObject(
+                    "{\"selector\":{\"$and\":[{\"owner\":\"testOrg1User\"},{\"_id\":{\"$gt\":null}}]},\"sort\":[{\"_id\":\"asc\"}]}")))))
+                    .thenReturn(results);
+
+            AssetPage page = contract.QueryAssetsWithLimit(ctx, "{\"selector\":{\"owner\":\"testOrg1User\"}}", "", 1, 0);
+
+            assertThat(page.getRecords()).containsExactly(testAsset("asset1"));
+            assertThat(page.getContinuationKey()).isEqualTo("asset2");
+        }
+
+        @Test
+        public void whenQuerySetsItsOwnSort() {
+            AssetTransfer contract = new AssetTransfer();
+            Context ctx = mock(Context.class);
+
+            Throwable thrown = catchThrowable(() -> {
+                contract.QueryAssetsWithLimit(ctx, "{\"selector\":{\"owner\":\"testOrg1User\"},\"sort\":[{\"size\":\"desc\"}]}", "", 1, 0);
+            });
+
+            assertThat(thrown).isInstanceOf(ChaincodeException.class).hasNoCause();
+            assertThat(((ChaincodeException) thrown).getPayload()).isEqualTo("INCOMPLETE_INPUT".getBytes());
+            verifyZeroInteractions(ctx);
+        }
+    }
+
+    /**
+     * Serves one asset per key and records how far the contract read.
+     */
+    private static final class AssetResults implements QueryResultsIterator<KeyValue> {
+
+        private final List<String> keys;
+        private int read;
+        private boolean closed;
+
+        AssetResults(final String... keys) {
+            this.keys = Arrays.asList(keys);
+        }
+
+        @Override
+        public Iterator<KeyValue> iterator() {
+            return new Iterator<KeyValue>() {
+                @Override
+                public boolean hasNext() {
+                    return read < keys.size();
+                }
+
+                @Override
+                public KeyValue next() {
+                    String key = keys.get(read++);
+                    KeyValue result = mock(KeyValue.class);
+                    when(result.getKey()).thenReturn(key);
+                    when(result.getValue()).thenReturn(testAsset(key).serialize());
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static Asset testAsset(final String assetID) {
+        return new Asset("testasset", assetID, "blue", 5, testOrg1Client);
+    }
+
     private static String testOrgOneMSP = "TestOrg1";
     private static String testOrg1Client = "testOrg1User";
 
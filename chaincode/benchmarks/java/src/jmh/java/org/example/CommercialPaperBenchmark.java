@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.samples.benchmarks.InMemoryChaincodeStub;
+import org.hyperledger.fabric.samples.benchmarks.Ledger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Issue, buy and redeem of the commercial paper contract. It lives in the
+ * contract's package because CommercialPaperContext is package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CommercialPaperBenchmark {
+
+    private static final String ISSUER = "MagnetoCorp";
+
+    @Param({"1000"})
+    private int papers;
+
+    private final CommercialPaperContract contract = new CommercialPaperContract();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        for (int i = 0; i < papers; i++) {
+            contract.issue(context("issue"), ISSUER, Ledger.id("", i), "2020-05-31", "2020-11-30", 5000000);
+        }
+    }
+
+    @Benchmark
+    public final CommercialPaper issue() {
+        return contract.issue(context("issue"), ISSUER, Ledger.id("new", next++), "2020-05-31", "2020-11-30", 5000000);
+    }
+
+    // buy and redeem re-issue the paper first, so each call starts from the same state
+
+    @Benchmark
+    public final CommercialPaper buy() {
+        String paperNumber = Ledger.id("", next++ % papers);
+        CommercialPaper paper = contract.issue(context("issue"), ISSUER, paperNumber, "2020-05-31", "2020-11-30", 5000000);
+        return contract.buy(context("buy"), ISSUER, paperNumber, paper.getOwner(), "DigiBank", 4900000, "2020-05-31");
+    }
+
+    @Benchmark
+    public final CommercialPaper redeem() {
+        String paperNumber = Ledger.id("", next++ % papers);
+        contract.issue(context("issue"), ISSUER, paperNumber, "2020-05-31", "2020-11-30", 5000000);
+        contract.buy(context("buy"), ISSUER, paperNumber, ISSUER, "DigiBank", 4900000, "2020-05-31");
+        return contract.redeem(context("redeem"), ISSUER, paperNumber, "DigiBank", "2020-11-30");
+    }
+
+    private CommercialPaperContext context(final String function) {
+        return (CommercialPaperContext) contract.createContext(stub.newTransaction(function));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.shim.Chaincode.Response;
+import org.hyperledger.fabric_samples.ABstore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Invoke and query of the abstore chaincode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ABstoreBenchmark {
+
+    private final ABstore chaincode = new ABstore();
+    private InMemoryChaincodeStub stub;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        chaincode.init(stub.newTransaction("init", "a", String.valueOf(Integer.MAX_VALUE / 2), "b", "0"));
+    }
+
+    @Benchmark
+    public final Response invoke() {
+        return chaincode.invoke(stub.newTransaction("invoke", "a", "b", "1"));
+    }
+
+    @Benchmark
+    public final Response query() {
+        return chaincode.invoke(stub.newTransaction("query", "a"));
+    }
+}
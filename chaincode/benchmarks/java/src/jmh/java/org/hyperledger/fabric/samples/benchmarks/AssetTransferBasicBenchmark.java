@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.samples.assettransfer.Asset;
+import org.hyperledger.fabric.samples.assettransfer.AssetTransfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hot transactions of the asset-transfer-basic contract.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssetTransferBasicBenchmark {
+
+    @Param({"1000"})
+    private int assets;
+
+    private final AssetTransfer contract = new AssetTransfer();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        Context ctx = context("InitLedger");
+        for (int i = 0; i < assets; i++) {
+            contract.CreateAsset(ctx, Ledger.id("asset", i), "blue", 5, "Tomoko", 300);
+        }
+    }
+
+    @Benchmark
+    public final Asset readAsset() {
+        return contract.ReadAsset(context("ReadAsset"), Ledger.id("asset", next++ % assets));
+    }
+
+    @Benchmark
+    public final Asset createAsset() {
+        return contract.CreateAsset(context("CreateAsset"), Ledger.id("new", next++), "red", 10, "Brad", 400);
+    }
+
+    @Benchmark
+    public final Asset transferAsset() {
+        int i = next++;
+        return contract.TransferAsset(context("TransferAsset"), Ledger.id("asset", i % assets), Ledger.id("owner", i));
+    }
+
+    @Benchmark
+    public final String getAllAssetsWithPagination() {
+        return contract.GetAllAssetsWithPagination(context("GetAllAssetsWithPagination"), 100, "");
+    }
+
+    private Context context(final String function) {
+        return contract.createContext(stub.newTransaction(function));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.samples.events.Asset;
+import org.hyperledger.fabric.samples.events.AssetTransfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hot transactions of the asset-transfer-events contract, including its events
+ * and implicit private data collection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssetTransferEventsBenchmark {
+
+    private static final String PRIVATE_PROPS = "{\"asset_properties\":{\"object_type\":\"asset_properties\",\"Price\":\"90\"}}";
+
+    @Param({"1000"})
+    private int assets;
+
+    private final AssetTransfer contract = new AssetTransfer();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        for (int i = 0; i < assets; i++) {
+            contract.CreateAsset(context("CreateAsset"), Ledger.id("asset", i), "blue", 5, "Tomoko", 300);
+        }
+    }
+
+    @Benchmark
+    public final String readAsset() {
+        return contract.ReadAsset(context("ReadAsset"), Ledger.id("asset", next++ % assets));
+    }
+
+    @Benchmark
+    public final Asset createAsset() {
+        return contract.CreateAsset(context("CreateAsset"), Ledger.id("new", next++), "red", 10, "Brad", 400);
+    }
+
+    @Benchmark
+    public final String transferAsset() {
+        int i = next++;
+        contract.TransferAsset(context("TransferAsset"), Ledger.id("asset", i % assets), Ledger.id("owner", i));
+        return stub.getEventName();
+    }
+
+    private Context context(final String function) {
+        stub.newTransaction(function).putTransient("asset_properties", PRIVATE_PROPS);
+        return contract.createContext(stub);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.samples.privatedata.Asset;
+import org.hyperledger.fabric.samples.privatedata.AssetTransfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hot transactions of the asset-transfer-private-data contract.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AssetTransferPrivateDataBenchmark {
+
+    @Param({"1000"})
+    private int assets;
+
+    private final AssetTransfer contract = new AssetTransfer();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        for (int i = 0; i < assets; i++) {
+            createAsset(Ledger.id("asset", i));
+        }
+    }
+
+    @Benchmark
+    public final Asset readAsset() {
+        return contract.ReadAsset(context("ReadAsset"), Ledger.id("asset", next++ % assets));
+    }
+
+    @Benchmark
+    public final Asset createAsset() {
+        return createAsset(Ledger.id("new", next++));
+    }
+
+    @Benchmark
+    public final Asset[] getAssetByRange() throws Exception {
+        int start = next++ % assets;
+        return contract.GetAssetByRange(context("GetAssetByRange"), Ledger.id("asset", start), Ledger.id("asset", start + 100));
+    }
+
+    private Asset createAsset(final String assetID) {
+        stub.newTransaction("CreateAsset").putTransient("asset_properties", String.format(
+                "{\"objectType\":\"asset\",\"assetID\":\"%s\",\"color\":\"blue\",\"size\":5,\"appraisedValue\":300}", assetID));
+        return contract.CreateAsset(contract.createContext(stub));
+    }
+
+    private Context context(final String function) {
+        return contract.createContext(stub.newTransaction(function));
+    }
+}
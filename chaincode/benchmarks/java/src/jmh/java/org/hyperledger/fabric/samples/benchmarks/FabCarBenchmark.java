@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.samples.fabcar.Car;
+import org.hyperledger.fabric.samples.fabcar.FabCar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hot transactions of the fabcar contract.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FabCarBenchmark {
+
+    @Param({"1000"})
+    private int cars;
+
+    private final FabCar contract = new FabCar();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        for (int i = 0; i < cars; i++) {
+            contract.createCar(context("createCar"), Ledger.id("CAR", i), "Toyota", "Prius", "blue", "Tomoko");
+        }
+    }
+
+    @Benchmark
+    public final Car queryCar() {
+        return contract.queryCar(context("queryCar"), Ledger.id("CAR", next++ % cars));
+    }
+
+    @Benchmark
+    public final Car createCar() {
+        return contract.createCar(context("createCar"), Ledger.id("NEW", next++), "Ford", "Mustang", "red", "Brad");
+    }
+
+    @Benchmark
+    public final Car changeCarOwner() {
+        int i = next++;
+        return contract.changeCarOwner(context("changeCarOwner"), Ledger.id("CAR", i % cars), Ledger.id("owner", i));
+    }
+
+    @Benchmark
+    public final String queryAllCars() {
+        return contract.queryAllCars(context("queryAllCars"));
+    }
+
+    private Context context(final String function) {
+        return contract.createContext(stub.newTransaction(function));
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import org.hyperledger.fabric.protos.msp.Identities.SerializedIdentity;
+import org.hyperledger.fabric.protos.peer.ChaincodeEventPackage.ChaincodeEvent;
+import org.hyperledger.fabric.protos.peer.ChaincodeShim.QueryResponseMetadata;
+import org.hyperledger.fabric.protos.peer.ProposalPackage.SignedProposal;
+import org.hyperledger.fabric.shim.Chaincode.Response;
+import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
+import org.hyperledger.fabric.shim.ledger.KeyModification;
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * ChaincodeStub keeping the world state and private data collections in sorted
+ * maps, so chaincode can be exercised without a peer.
+ *
+ * Range and partial composite key queries follow the peer: an empty start key
+ * skips composite keys, and a partial composite key matches every key that
+ * starts with it. Writes are visible to later reads straight away; there is no
+ * read/write set and nothing is ever rolled back. Rich queries are not supported,
+ * as with LevelDB. Query results are read from the maps as chaincode iterates, so
+ * a query only costs the entries chaincode actually reads.
+ */
+public final class InMemoryChaincodeStub implements ChaincodeStub {
+
+    /** Client certificate used for the creator of every transaction. */
+    private static final String CLIENT_CERT = "-----BEGIN CERTIFICATE-----\n"
+            + "MIICGTCCAb+gAwIBAgIUVwZRmJEx1GoHvRmRJa+rYfmy0ucwCgYIKoZIzj0EAwIw\n"
+            + "YTELMAkGA1UEBhMCVVMxFzAVBgNVBAgMDk5vcnRoIENhcm9saW5hMRQwEgYDVQQK\n"
+            + "DAtIeXBlcmxlZGdlcjEPMA0GA1UECwwGY2xpZW50MRIwEAYDVQQDDAliZW5jaG1h\n"
+            + "cmswIBcNMjYxMDE4MTEwNzAzWhgPMjEyNjA5MjQxMTA3MDNaMGExCzAJBgNVBAYT\n"
+            + "AlVTMRcwFQYDVQQIDA5Ob3J0aCBDYXJvbGluYTEUMBIGA1UECgwLSHlwZXJsZWRn\n"
+            + "ZXIxDzANBgNVBAsMBmNsaWVudDESMBAGA1UEAwwJYmVuY2htYXJrMFkwEwYHKoZI\n"
+            + "zj0CAQYIKoZIzj0DAQcDQgAE0mJbLU9Zow8Ub0pUa8hLL0a9v1VyUoyNzmSEUm+d\n"
+            + "69UYecOuySafGZCaP12fnhmRhZsL7FsKYeRlXvVlEO0+SqNTMFEwHQYDVR0OBBYE\n"
+            + "FOEwot1dFteFicE1opkha8mAopJ3MB8GA1UdIwQYMBaAFOEwot1dFteFicE1opkh\n"
+            + "a8mAopJ3MA8GA1UdEwEB/wQFMAMBAf8wCgYIKoZIzj0EAwIDSAAwRQIhAJsiV+7R\n"
+            + "b6bi/+tt4m2BCr73+uUPgqcCcUNVj8U0yQ4qAiBA8WrILmJROCRbbA7BKuNNdk27\n"
+            + "73lpTuETPZkU2hEInw==\n"
+            + "-----END CERTIFICATE-----\n";
+
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private static final String UNSPECIFIED_START_KEY = new String(Character.toChars(0x000001));
+    private static final String MAX_UNICODE_RUNE = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+    private final String mspId;
+    private final byte[] creator;
+
+    private final NavigableMap<String, byte[]> state = new ConcurrentSkipListMap<>();
+    private final Map<String, byte[]> validationParameters = new HashMap<>();
+    private final Map<String, NavigableMap<String, byte[]>> privateData = new HashMap<>();
+    private final Map<String, byte[]> transientData = new HashMap<>();
+
+    private List<String> args = Collections.emptyList();
+    private String eventName;
+    private byte[] eventPayload;
+    private long txCount;
+    private String txId = "tx0";
+
+    public InMemoryChaincodeStub(final String mspId) {
+        this.mspId = mspId;
+        this.creator = SerializedIdentity.newBuilder()
+                .setMspid(mspId)
+                .setIdBytes(ByteString.copyFrom(CLIENT_CERT, UTF_8))
+                .build()
+                .toByteArray();
+    }
+
+    /**
+     * Starts a new transaction: a new transaction ID, no event and no transient data.
+     *
+     * @param function the function being invoked
+     * @param parameters the parameters of the function
+     * @return this stub
+     */
+    public InMemoryChaincodeStub newTransaction(final String function, final String... parameters) {
+        txId = "tx" + (++txCount);
+        eventName = null;
+        eventPayload = null;
+        transientData.clear();
+
+        List<String> allArgs = new ArrayList<>(parameters.length + 1);
+        allArgs.add(function);
+        allArgs.addAll(Arrays.asList(parameters));
+        args = allArgs;
+        return this;
+    }
+
+    /**
+     * @param key the transient data key
+     * @param value the transient data value
+     * @return this stub
+     */
+    public InMemoryChaincodeStub putTransient(final String key, final String value) {
+        transientData.put(key, value.getBytes(UTF_8));
+        return this;
+    }
+
+    /**
+     * @return the number of keys in the world state
+     */
+    public int size() {
+        return state.size();
+    }
+
+    /**
+     * @return the name of the event set by the last transaction, if any
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    @Override
+    public List<byte[]> getArgs() {
+        return args.stream().map(arg -> arg.getBytes(UTF_8)).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getStringArgs() {
+        return args;
+    }
+
+    @Override
+    public String getFunction() {
+        return args.isEmpty() ? null : args.get(0);
+    }
+
+    @Override
+    public List<String> getParameters() {
+        return args.isEmpty() ? Collections.emptyList() : args.subList(1, args.size());
+    }
+
+    @Override
+    public String getTxId() {
+        return txId;
+    }
+
+    @Override
+    public String getChannelId() {
+        return "mychannel";
+    }
+
+    @Override
+    public Response invokeChaincode(final String chaincodeName, final List<byte[]> args, final String channel) {
+        throw new UnsupportedOperationException("invokeChaincode");
+    }
+
+    @Override
+    public byte[] getState(final String key) {
+        // a peer returns an empty value, not null, for a key that does not exist
+        return state.getOrDefault(key, NO_VALUE);
+    }
+
+    @Override
+    public byte[] getStateValidationParameter(final String key) {
+        return validationParameters.get(key);
+    }
+
+    @Override
+    public void putState(final String key, final byte[] value) {
+        state.put(key, value);
+    }
+
+    @Override
+    public void setStateValidationParameter(final String key, final byte[] value) {
+        validationParameters.put(key, value);
+    }
+
+    @Override
+    public void delState(final String key) {
+        state.remove(key);
+        validationParameters.remove(key);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getStateByRange(final String startKey, final String endKey) {
+        return new Results(range(state, startKey, endKey), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public QueryResultsIteratorWithMetadata<KeyValue> getStateByRangeWithPagination(final String startKey,
+            final String endKey, final int pageSize, final String bookmark) {
+        String from = bookmark == null || bookmark.isEmpty() ? startKey : bookmark;
+        return new Results(range(state, from, endKey), pageSize);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getStateByPartialCompositeKey(final String compositeKey) {
+        return new Results(prefix(state, compositeKey), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getStateByPartialCompositeKey(final String objectType,
+            final String... attributes) {
+        return getStateByPartialCompositeKey(new CompositeKey(objectType, attributes));
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getStateByPartialCompositeKey(final CompositeKey compositeKey) {
+        return getStateByPartialCompositeKey(compositeKey.toString());
+    }
+
+    @Override
+    public QueryResultsIteratorWithMetadata<KeyValue> getStateByPartialCompositeKeyWithPagination(
+            final CompositeKey compositeKey, final int pageSize, final String bookmark) {
+        String prefix = compositeKey.toString();
+        String from = bookmark == null || bookmark.isEmpty() ? prefix : bookmark;
+        return new Results(state.subMap(from, true, prefix + MAX_UNICODE_RUNE, false), pageSize);
+    }
+
+    @Override
+    public CompositeKey createCompositeKey(final String objectType, final String... attributes) {
+        return new CompositeKey(objectType, attributes);
+    }
+
+    @Override
+    public CompositeKey splitCompositeKey(final String compositeKey) {
+        return CompositeKey.parseCompositeKey(compositeKey);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getQueryResult(final String query) {
+        throw new UnsupportedOperationException("Rich queries are not supported by the in-memory state");
+    }
+
+    @Override
+    public QueryResultsIteratorWithMetadata<KeyValue> getQueryResultWithPagination(final String query,
+            final int pageSize, final String bookmark) {
+        throw new UnsupportedOperationException("Rich queries are not supported by the in-memory state");
+    }
+
+    @Override
+    public QueryResultsIterator<KeyModification> getHistoryForKey(final String key) {
+        throw new UnsupportedOperationException("getHistoryForKey");
+    }
+
+    @Override
+    public byte[] getPrivateData(final String collection, final String key) {
+        return collection(collection).getOrDefault(key, NO_VALUE);
+    }
+
+    @Override
+    public byte[] getPrivateDataHash(final String collection, final String key) {
+        byte[] value = getPrivateData(collection, key);
+        if (value.length == 0) {
+            return NO_VALUE;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public byte[] getPrivateDataValidationParameter(final String collection, final String key) {
+        return null;
+    }
+
+    @Override
+    public void putPrivateData(final String collection, final String key, final byte[] value) {
+        collection(collection).put(key, value);
+    }
+
+    @Override
+    public void setPrivateDataValidationParameter(final String collection, final String key, final byte[] value) {
+        // endorsement policies are not evaluated
+    }
+
+    @Override
+    public void delPrivateData(final String collection, final String key) {
+        collection(collection).remove(key);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getPrivateDataByRange(final String collection, final String startKey,
+            final String endKey) {
+        return new Results(range(collection(collection), startKey, endKey), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getPrivateDataByPartialCompositeKey(final String collection,
+            final String compositeKey) {
+        return new Results(prefix(collection(collection), compositeKey), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getPrivateDataByPartialCompositeKey(final String collection,
+            final CompositeKey compositeKey) {
+        return getPrivateDataByPartialCompositeKey(collection, compositeKey.toString());
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getPrivateDataByPartialCompositeKey(final String collection,
+            final String objectType, final String... attributes) {
+        return getPrivateDataByPartialCompositeKey(collection, new CompositeKey(objectType, attributes));
+    }
+
+    @Override
+    public QueryResultsIterator<KeyValue> getPrivateDataQueryResult(final String collection, final String query) {
+        throw new UnsupportedOperationException("Rich queries are not supported by the in-memory state");
+    }
+
+    @Override
+    public void setEvent(final String name, final byte[] payload) {
+        this.eventName = name;
+        this.eventPayload = payload;
+    }
+
+    @Override
+    public ChaincodeEvent getEvent() {
+        if (eventName == null) {
+            return null;
+        }
+        return ChaincodeEvent.newBuilder()
+                .setEventName(eventName)
+                .setPayload(ByteString.copyFrom(eventPayload == null ? new byte[0] : eventPayload))
+                .setTxId(txId)
+                .build();
+    }
+
+    @Override
+    public SignedProposal getSignedProposal() {
+        return SignedProposal.getDefaultInstance();
+    }
+
+    @Override
+    public Instant getTxTimestamp() {
+        return Instant.now();
+    }
+
+    @Override
+    public byte[] getCreator() {
+        return creator;
+    }
+
+    @Override
+    public Map<String, byte[]> getTransient() {
+        return transientData;
+    }
+
+    @Override
+    public byte[] getBinding() {
+        return new byte[0];
+    }
+
+    @Override
+    public String getMspId() {
+        return mspId;
+    }
+
+    private NavigableMap<String, byte[]> collection(final String name) {
+        return privateData.computeIfAbsent(name, n -> new ConcurrentSkipListMap<>());
+    }
+
+    private static NavigableMap<String, byte[]> range(final NavigableMap<String, byte[]> map, final String startKey,
+            final String endKey) {
+        String from = startKey == null || startKey.isEmpty() ? UNSPECIFIED_START_KEY : startKey;
+        if (endKey == null || endKey.isEmpty()) {
+            return map.tailMap(from, true);
+        }
+        return map.subMap(from, true, endKey, false);
+    }
+
+    private static NavigableMap<String, byte[]> prefix(final NavigableMap<String, byte[]> map, final String prefix) {
+        return map.subMap(prefix, true, prefix + MAX_UNICODE_RUNE, false);
+    }
+
+    /**
+     * Lazily iterates over a live view of the matching keys, stopping after a page.
+     * Nothing is copied up front. The maps are concurrent skip lists, so chaincode can
+     * write while it iterates without a ConcurrentModificationException; unlike a peer,
+     * a key written ahead of the iterator may be returned.
+     */
+    private static final class Results
+            implements QueryResultsIterator<KeyValue>, QueryResultsIteratorWithMetadata<KeyValue> {
+
+        private final NavigableMap<String, byte[]> matches;
+        private final int pageSize;
+
+        Results(final NavigableMap<String, byte[]> matches, final int pageSize) {
+            this.matches = matches;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public Iterator<KeyValue> iterator() {
+            return matches.entrySet().stream()
+                    .limit(pageSize)
+                    .map(entry -> (KeyValue) new Entry(entry.getKey(), entry.getValue()))
+                    .iterator();
+        }
+
+        @Override
+        public QueryResponseMetadata getMetadata() {
+            int fetched = 0;
+            String bookmark = "";
+            for (String key : matches.keySet()) {
+                if (fetched == pageSize) {
+                    bookmark = key;
+                    break;
+                }
+                fetched++;
+            }
+            return QueryResponseMetadata.newBuilder()
+                    .setFetchedRecordsCount(fetched)
+                    .setBookmark(bookmark)
+                    .build();
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    private static final class Entry implements KeyValue {
+
+        private final String key;
+        private final byte[] value;
+
+        Entry(final String key, final byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public byte[] getValue() {
+            return value;
+        }
+
+        @Override
+        public String getStringValue() {
+            return new String(value, UTF_8);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+/**
+ * Helpers shared by the benchmarks.
+ */
+public final class Ledger {
+
+    private Ledger() {
+    }
+
+    /**
+     * Builds a fixed width key so keys sort in numeric order.
+     *
+     * @param prefix the key prefix
+     * @param n the key number
+     * @return the key
+     */
+    public static String id(final String prefix, final int n) {
+        return String.format("%s%08d", prefix, n);
+    }
+}
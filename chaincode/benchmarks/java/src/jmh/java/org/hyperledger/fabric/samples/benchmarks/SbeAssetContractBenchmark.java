@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.samples.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.samples.sbe.Asset;
+import org.hyperledger.fabric.samples.sbe.AssetContract;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Hot transactions of the asset-transfer-sbe contract, including the state
+ * based endorsement policies it writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SbeAssetContractBenchmark {
+
+    @Param({"1000"})
+    private int assets;
+
+    private final AssetContract contract = new AssetContract();
+    private InMemoryChaincodeStub stub;
+    private int next;
+
+    @Setup
+    public final void setup() {
+        stub = new InMemoryChaincodeStub("Org1MSP");
+        for (int i = 0; i < assets; i++) {
+            contract.CreateAsset(context("CreateAsset"), Ledger.id("asset", i), 100, "Tomoko");
+        }
+    }
+
+    @Benchmark
+    public final String readAsset() {
+        return contract.ReadAsset(context("ReadAsset"), Ledger.id("asset", next++ % assets));
+    }
+
+    @Benchmark
+    public final Asset createAsset() {
+        return contract.CreateAsset(context("CreateAsset"), Ledger.id("new", next++), 100, "Brad");
+    }
+
+    @Benchmark
+    public final Asset updateAsset() {
+        int i = next++;
+        return contract.UpdateAsset(context("UpdateAsset"), Ledger.id("asset", i % assets), i);
+    }
+
+    @Benchmark
+    public final Asset transferAsset() {
+        int i = next++;
+        return contract.TransferAsset(context("TransferAsset"), Ledger.id("asset", i % assets), Ledger.id("owner", i),
+                i % 2 == 0 ? "Org1MSP" : "Org2MSP");
+    }
+
+    private Context context(final String function) {
+        return contract.createContext(stub.newTransaction(function));
+    }
+}
@@ -31,6 +31,10 @@ public class CommercialPaperContract implements ContractInterface {
     // use the classname for the logger, this way you can refactor
     private final static Logger LOG = Logger.getLogger(CommercialPaperContract.class.getName());
 
+    static {
+        AsyncLogHandler.install();
+    }
+
     @Override
     public Context createContext(ChaincodeStub stub) {
         return new CommercialPaperContext(stub);
@@ -70,8 +74,6 @@ public class CommercialPaperContract implements ContractInterface {
     public CommercialPaper issue(CommercialPaperContext ctx, String issuer, String paperNumber, String issueDateTime,
             String maturityDateTime, int faceValue) {
 
-        System.out.println(ctx);
-
         // create an instance of the paper
         CommercialPaper paper = CommercialPaper.createInstance(issuer, paperNumber, issueDateTime, maturityDateTime,
                 faceValue,issuer,"");
@@ -82,7 +84,7 @@ public class CommercialPaperContract implements ContractInterface {
         // Newly issued paper is owned by the issuer
         paper.setOwner(issuer);
 
-        System.out.println(paper);
+        LOG.fine(() -> "Issuing " + paper);
         // Add the paper to the list of all similar commercial papers in the ledger
         // world state
         ctx.paperList.addPaper(paper);
@@ -107,7 +109,7 @@ public class CommercialPaperContract implements ContractInterface {
             String newOwner, int price, String purchaseDateTime) {
 
         // Retrieve the current paper using key fields provided
-        String paperKey = State.makeKey(new String[] { paperNumber });
+        String paperKey = State.makeKey(new String[] { issuer, paperNumber });
         CommercialPaper paper = ctx.paperList.getPaper(paperKey);
 
         // Validate current owner
@@ -146,7 +148,7 @@ public class CommercialPaperContract implements ContractInterface {
     public CommercialPaper redeem(CommercialPaperContext ctx, String issuer, String paperNumber, String redeemingOwner,
             String redeemDateTime) {
 
-        String paperKey = CommercialPaper.makeKey(new String[] { paperNumber });
+        String paperKey = CommercialPaper.makeKey(new String[] { issuer, paperNumber });
 
         CommercialPaper paper = ctx.paperList.getPaper(paperKey);
 
@@ -167,4 +169,31 @@ public class CommercialPaperContract implements ContractInterface {
         return paper;
     }
 
+    /**
+     * Query commercial paper by issuer, one page of the issuer's papers at a time
+     *
+     * @param {Context} ctx the transaction context
+     * @param {String} issuer commercial paper issuer
+     * @param {Integer} pageSize number of papers to return
+     * @param {String} bookmark where to continue from, empty for the first page
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public PaperPage queryByIssuer(CommercialPaperContext ctx, String issuer, int pageSize, String bookmark) {
+        return ctx.paperList.queryByIssuer(issuer, pageSize, bookmark);
+    }
+
+    /**
+     * Query commercial paper in a lifecycle state (ISSUED, TRADING or REDEEMED),
+     * one page of the paper list at a time
+     *
+     * @param {Context} ctx the transaction context
+     * @param {String} state commercial paper state
+     * @param {Integer} pageSize number of papers to examine
+     * @param {String} bookmark where to continue from, empty for the first page
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public PaperPage queryByState(CommercialPaperContext ctx, String state, int pageSize, String bookmark) {
+        return ctx.paperList.queryByState(state, pageSize, bookmark);
+    }
+
 }
@@ -4,6 +4,11 @@ SPDX-License-Identifier: Apache-2.0
 
 package org.example;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.example.ledgerapi.StateIterator;
 import org.example.ledgerapi.StateList;
 import org.hyperledger.fabric.contract.Context;
 
@@ -28,4 +33,37 @@ public class PaperList {
         this.stateList.updateState(paper);
         return this;
     }
+
+    /**
+     * Reads one page of the papers of an issuer. The paper key starts with the
+     * issuer, so only the issuer's papers are read and every page is full until
+     * the last one.
+     */
+    public PaperPage queryByIssuer(String issuer, int pageSize, String bookmark) {
+        return queryPapers(paper -> true, pageSize, bookmark, issuer);
+    }
+
+    public PaperPage queryByState(String state, int pageSize, String bookmark) {
+        return queryPapers(paper -> state.equals(paper.getState()), pageSize, bookmark);
+    }
+
+    /**
+     * Reads one page of papers whose keys start with the key parts and keeps
+     * those matching the filter. Only the current page is held in memory, so a
+     * page may hold fewer matches than the page size. The returned bookmark
+     * continues from the end of the page.
+     */
+    private PaperPage queryPapers(Predicate<CommercialPaper> filter, int pageSize, String bookmark,
+            String... keyParts) {
+        List<CommercialPaper> papers = new ArrayList<>();
+        try (StateIterator states = this.stateList.getStates(pageSize, bookmark, keyParts)) {
+            while (states.hasNext()) {
+                CommercialPaper paper = (CommercialPaper) states.next();
+                if (filter.test(paper)) {
+                    papers.add(paper);
+                }
+            }
+            return new PaperPage(papers.toArray(new CommercialPaper[0]), states.getBookmark());
+        }
+    }
 }
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.example;
+
+import org.hyperledger.fabric.contract.annotation.DataType;
+import org.hyperledger.fabric.contract.annotation.Property;
+
+/**
+ * The papers matching a query within one page of the paper list, and the
+ * bookmark to read the next page from.
+ */
+@DataType()
+public class PaperPage {
+
+    @Property()
+    private CommercialPaper[] papers;
+
+    @Property()
+    private String bookmark;
+
+    public PaperPage(CommercialPaper[] papers, String bookmark) {
+        this.papers = papers;
+        this.bookmark = bookmark;
+    }
+
+    public CommercialPaper[] getPapers() {
+        return papers;
+    }
+
+    public String getBookmark() {
+        return bookmark;
+    }
+
+}
@@ -13,8 +13,19 @@ import org.json.JSONObject;
  */
 public class State {
 
+    // as used by the shim's CompositeKey
+    private static final char COMPOSITE_KEY_DELIMITER = '\u0000';
+
     protected String key;
 
+    // derived from key, rebuilt only when the key changes
+    private String splitKeySource;
+    private String[] splitKey;
+
+    private String ledgerKeySource;
+    private String ledgerKeyList;
+    private String ledgerKey;
+
     /**
      * @param {String|Object} class An identifiable class of the instance
      * @param {keyParts[]} elements to pull together to make a key for the objects
@@ -28,7 +39,41 @@ public class State {
     }
 
     public String[] getSplitKey() {
-        return State.splitKey(this.key);
+        if (this.splitKey == null || !this.key.equals(this.splitKeySource)) {
+            this.splitKey = State.splitKey(this.key);
+            this.splitKeySource = this.key;
+        }
+        return this.splitKey;
+    }
+
+    /**
+     * The world state key of this state in the named list. The key is built once
+     * and kept until the key of the state changes.
+     *
+     * @param listName the name of the list holding the state
+     * @return the ledger key
+     */
+    public String getLedgerKey(String listName) {
+        if (this.ledgerKey == null || !this.key.equals(this.ledgerKeySource) || !listName.equals(this.ledgerKeyList)) {
+            this.ledgerKey = State.ledgerKey(listName, this.key);
+            this.ledgerKeySource = this.key;
+            this.ledgerKeyList = listName;
+        }
+        return this.ledgerKey;
+    }
+
+    /**
+     * The world state key of the state with the given key in the named list. This
+     * is the composite key of the list name and the parts of the key, built as a
+     * single string.
+     *
+     * @param listName the name of the list holding the state
+     * @param key      the key of the state, as made by makeKey
+     * @return the ledger key
+     */
+    public static String ledgerKey(String listName, String key) {
+        return COMPOSITE_KEY_DELIMITER + listName + COMPOSITE_KEY_DELIMITER
+                + key.replace(':', COMPOSITE_KEY_DELIMITER) + COMPOSITE_KEY_DELIMITER;
     }
 
     /**
@@ -53,7 +98,6 @@ public class State {
     }
 
     public static String[] splitKey(String key) {
-        System.out.println("splitting key " + key + "   " + java.util.Arrays.asList(key.split(":")));
         return key.split(":");
     }
 
@@ -0,0 +1,73 @@
+/*
+SPDX-License-Identifier: Apache-2.0
+*/
+package org.example.ledgerapi;
+
+import java.util.Iterator;
+
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
+
+/**
+ * Iterates over the states returned by a world state query. Each state is
+ * deserialized only when it is reached, and the peer sends further results only
+ * as they are needed, so a query never holds the whole result set in memory.
+ *
+ * The iterator must be closed once it is no longer needed.
+ */
+public class StateIterator implements Iterator<State>, AutoCloseable {
+
+    private AutoCloseable results;
+    private QueryResultsIteratorWithMetadata<KeyValue> page;
+    private Iterator<KeyValue> iterator;
+    private StateDeserializer deserializer;
+
+    public StateIterator(QueryResultsIterator<KeyValue> results, StateDeserializer deserializer) {
+        this.results = results;
+        this.iterator = results.iterator();
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * Iterates over one page of a paginated query, whose metadata holds the
+     * bookmark of the next page.
+     */
+    public StateIterator(QueryResultsIteratorWithMetadata<KeyValue> page, StateDeserializer deserializer) {
+        this.results = page;
+        this.page = page;
+        this.iterator = page.iterator();
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.iterator.hasNext();
+    }
+
+    @Override
+    public State next() {
+        return this.deserializer.deserialize(this.iterator.next().getValue());
+    }
+
+    /**
+     * The bookmark to pass to the next paginated query to continue after this
+     * page. Empty when the query was not paginated or there are no more results.
+     */
+    public String getBookmark() {
+        if (this.page == null || this.page.getMetadata() == null) {
+            return "";
+        }
+        return this.page.getMetadata().getBookmark();
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.results.close();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to close query results", e);
+        }
+    }
+
+}
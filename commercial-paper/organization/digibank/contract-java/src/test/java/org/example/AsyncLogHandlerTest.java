@@ -0,0 +1,150 @@
+/*
+SPDX-License-Identifier: Apache-2.0
+*/
+package org.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public final class AsyncLogHandlerTest {
+
+    private static final class Collector extends Handler {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private volatile boolean interrupted;
+
+        Collector(final CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void publish(final LogRecord record) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                Thread.currentThread().interrupt();
+            }
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+            // do nothing
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+    }
+
+    // stands in for the copy of AsyncLogHandler in another contract
+    private static final class Other {
+
+        private static final class AsyncLogHandler extends Handler {
+
+            @Override
+            public void publish(final LogRecord record) {
+                // do nothing
+            }
+
+            @Override
+            public void flush() {
+                // do nothing
+            }
+
+            @Override
+            public void close() {
+                // do nothing
+            }
+        }
+    }
+
+    @Test
+    public void publishesRecordsInOrder() {
+        Collector target = new Collector(new CountDownLatch(0));
+        AsyncLogHandler handler = new AsyncLogHandler(target, AsyncLogHandler.DEFAULT_CAPACITY);
+
+        handler.publish(new LogRecord(Level.INFO, "one"));
+        handler.publish(new LogRecord(Level.INFO, "two"));
+        handler.close();
+
+        assertThat(target.messages).containsExactly("one", "two");
+    }
+
+    @Test
+    public void discardsRecordsBelowTargetLevel() {
+        Collector target = new Collector(new CountDownLatch(0));
+        target.setLevel(Level.WARNING);
+        AsyncLogHandler handler = new AsyncLogHandler(target, AsyncLogHandler.DEFAULT_CAPACITY);
+
+        handler.publish(new LogRecord(Level.FINE, "debug"));
+        handler.publish(new LogRecord(Level.WARNING, "warning"));
+        handler.close();
+
+        assertThat(target.messages).containsExactly("warning");
+    }
+
+    @Test
+    public void dropsRecordsWhenQueueIsFull() {
+        CountDownLatch gate = new CountDownLatch(1);
+        Collector target = new Collector(gate);
+        AsyncLogHandler handler = new AsyncLogHandler(target, 1);
+
+        handler.publish(new LogRecord(Level.INFO, "one"));
+        handler.publish(new LogRecord(Level.INFO, "two"));
+        handler.publish(new LogRecord(Level.INFO, "three"));
+        gate.countDown();
+        handler.close();
+
+        assertThat(target.messages).contains("one").anyMatch(message -> message.endsWith("log records dropped, the log queue was full"));
+    }
+
+    @Test
+    public void closeWritesQueuedRecordsWithoutInterrupting() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        Collector target = new Collector(gate);
+        AsyncLogHandler handler = new AsyncLogHandler(target, AsyncLogHandler.DEFAULT_CAPACITY);
+
+        handler.publish(new LogRecord(Level.INFO, "one"));
+        handler.publish(new LogRecord(Level.INFO, "two"));
+        handler.publish(new LogRecord(Level.INFO, "three"));
+        Thread closer = new Thread(handler::close);
+        closer.start();
+        closer.join(100);
+        gate.countDown();
+        closer.join();
+
+        assertThat(target.messages).containsExactly("one", "two", "three");
+        assertThat(target.interrupted).isFalse();
+    }
+
+    @Test
+    public void installLeavesOtherAsyncLogHandlersInPlace() {
+        Logger root = Logger.getLogger("");
+        Handler[] original = root.getHandlers();
+        Arrays.stream(original).forEach(root::removeHandler);
+        Handler other = new Other.AsyncLogHandler();
+        root.addHandler(other);
+        try {
+            AsyncLogHandler.install();
+
+            assertThat(root.getHandlers()).containsExactly(other);
+        } finally {
+            root.removeHandler(other);
+            Arrays.stream(original).forEach(root::addHandler);
+        }
+    }
+}
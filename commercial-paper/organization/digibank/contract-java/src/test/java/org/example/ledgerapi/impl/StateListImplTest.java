@@ -0,0 +1,198 @@
+/*
+SPDX-License-Identifier: Apache-2.0
+*/
+package org.example.ledgerapi.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.example.CommercialPaper;
+import org.example.ledgerapi.State;
+import org.example.ledgerapi.StateIterator;
+import org.example.ledgerapi.StateList;
+import org.hyperledger.fabric.contract.Context;
+import org.hyperledger.fabric.protos.peer.ChaincodeShim.QueryResponseMetadata;
+import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public final class StateListImplTest {
+
+    private static final String LIST = "PaperList";
+
+    private final ChaincodeStub stub = mock(ChaincodeStub.class);
+    private final StateList stateList = newStateList(stub);
+
+    static StateList newStateList(ChaincodeStub stub) {
+        Context ctx = mock(Context.class);
+        when(ctx.getStub()).thenReturn(stub);
+        return StateList.getStateList(ctx, LIST, CommercialPaper::deserialize);
+    }
+
+    static CommercialPaper paper(String issuer, String paperNumber, String state) {
+        return CommercialPaper.createInstance(issuer, paperNumber, "2020-05-31", "2020-11-30", 5000000, issuer, state);
+    }
+
+    static KeyValue keyValue(String listName, CommercialPaper paper) {
+        return new KeyValue() {
+            @Override
+            public String getKey() {
+                return paper.getLedgerKey(listName);
+            }
+
+            @Override
+            public byte[] getValue() {
+                return CommercialPaper.serialize(paper);
+            }
+
+            @Override
+            public String getStringValue() {
+                return new String(getValue(), UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Results of a paginated query holding the given papers, with the bookmark
+     * of the next page.
+     */
+    public static QueryResultsIteratorWithMetadata<KeyValue> page(String listName, String bookmark,
+            CommercialPaper... papers) {
+        return new Results(listName, bookmark, papers);
+    }
+
+    static final class Results implements QueryResultsIteratorWithMetadata<KeyValue>, QueryResultsIterator<KeyValue> {
+
+        private final List<KeyValue> values;
+        private final String bookmark;
+        private boolean closed;
+
+        Results(String listName, String bookmark, CommercialPaper... papers) {
+            this.values = Arrays.stream(papers).map(paper -> keyValue(listName, paper)).collect(Collectors.toList());
+            this.bookmark = bookmark;
+        }
+
+        @Override
+        public Iterator<KeyValue> iterator() {
+            return this.values.iterator();
+        }
+
+        @Override
+        public QueryResponseMetadata getMetadata() {
+            return QueryResponseMetadata.newBuilder().setFetchedRecordsCount(this.values.size())
+                    .setBookmark(this.bookmark).build();
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+
+    private static String paperNumbers(StateIterator states) {
+        StringBuilder numbers = new StringBuilder();
+        while (states.hasNext()) {
+            numbers.append(((CommercialPaper) states.next()).getPaperNumber()).append(' ');
+        }
+        return numbers.toString().trim();
+    }
+
+
+    private static CompositeKey partialKey(String... attributes) {
+        String key = new CompositeKey(LIST, attributes).toString();
+        return argThat(partialKey -> partialKey != null && key.equals(partialKey.toString()));
+    }
+
+    @Nested
+    class GetStates {
+
+        @Test
+        public void readsPartialKeyLazily() throws Exception {
+            Results results = new Results(LIST, "", paper("MagnetoCorp", "00001", CommercialPaper.ISSUED),
+                    paper("MagnetoCorp", "00002", CommercialPaper.TRADING));
+            when(stub.getStateByPartialCompositeKey(partialKey("MagnetoCorp"))).thenReturn(results);
+
+            try (StateIterator states = stateList.getStates("MagnetoCorp")) {
+                assertThat(paperNumbers(states)).isEqualTo("00001 00002");
+                assertThat(states.getBookmark()).isEmpty();
+            }
+            assertThat(results.closed).isTrue();
+        }
+
+        @Test
+        public void readsFirstPage() throws Exception {
+            Results results = new Results(LIST, "next", paper("MagnetoCorp", "00001", CommercialPaper.ISSUED));
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey(), eq(1), eq(""))).thenReturn(results);
+
+            try (StateIterator states = stateList.getStates(1, "")) {
+                assertThat(paperNumbers(states)).isEqualTo("00001");
+                assertThat(states.getBookmark()).isEqualTo("next");
+            }
+            assertThat(results.closed).isTrue();
+        }
+
+        @Test
+        public void continuesFromBookmark() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey("MagnetoCorp"), eq(2), eq("next")))
+                    .thenReturn(page(LIST, "", paper("MagnetoCorp", "00002", CommercialPaper.TRADING)));
+
+            try (StateIterator states = stateList.getStates(2, "next", "MagnetoCorp")) {
+                assertThat(paperNumbers(states)).isEqualTo("00002");
+                assertThat(states.getBookmark()).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    public void ledgerKeyIsComposite() {
+        State paper = paper("MagnetoCorp", "00001", CommercialPaper.ISSUED);
+
+        assertThat(paper.getLedgerKey(LIST)).isEqualTo(new CompositeKey(LIST, "MagnetoCorp", "00001").toString());
+        assertThat(State.ledgerKey(LIST, "MagnetoCorp:00001")).isEqualTo(paper.getLedgerKey(LIST));
+    }
+
+    @Test
+    public void readsEachStateOnceInTransaction() {
+        String ledgerKey = new CompositeKey(LIST, "MagnetoCorp", "00001").toString();
+        CommercialPaper issued = paper("MagnetoCorp", "00001", CommercialPaper.ISSUED);
+        when(stub.getState(ledgerKey)).thenReturn(CommercialPaper.serialize(issued));
+
+        // buy, as done by the contract
+        CommercialPaper paper = (CommercialPaper) stateList.getState("MagnetoCorp:00001");
+        paper.setTrading();
+        paper.setOwner("DigiBank");
+        stateList.updateState(paper);
+
+        // redeem, as done by the contract
+        paper = (CommercialPaper) stateList.getState("MagnetoCorp:00001");
+        assertThat(paper.getOwner()).isEqualTo("DigiBank");
+        paper.setOwner(paper.getIssuer());
+        paper.setRedeemed();
+        stateList.updateState(paper);
+
+        verify(stub, times(1)).getState(ledgerKey);
+        verify(stub, times(2)).putState(eq(ledgerKey), argThat(data -> data != null && data.length > 0));
+    }
+
+    @Test
+    public void readsMissingStateAsNull() {
+        when(stub.getState(new CompositeKey(LIST, "MagnetoCorp", "00009").toString())).thenReturn(new byte[0]);
+
+        assertThat(stateList.getState("MagnetoCorp:00009")).isNull();
+    }
+}
@@ -93,8 +93,12 @@ public class CommercialPaper extends State {
         super();
     }
 
+    /**
+     * The key starts with the issuer, so the papers of an issuer can be found
+     * with a partial key query.
+     */
     public CommercialPaper setKey() {
-        this.key = State.makeKey(new String[] { this.paperNumber });
+        this.key = State.makeKey(new String[] { this.issuer, this.paperNumber });
         return this;
     }
 
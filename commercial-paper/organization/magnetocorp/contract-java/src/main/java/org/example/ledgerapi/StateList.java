@@ -45,4 +45,18 @@ public interface StateList {
      */
     public StateList updateState(State state);
 
+    /**
+     * Get the states in the list whose keys start with the supplied key parts, or
+     * every state in the list when no key parts are given. States are read from
+     * world state and deserialized lazily as the iterator advances.
+     */
+    public StateIterator getStates(String... keyParts);
+
+    /**
+     * Get one page of the states in the list whose keys start with the supplied
+     * key parts. The bookmark of the returned iterator continues the query from
+     * the end of the page.
+     */
+    public StateIterator getStates(int pageSize, String bookmark, String... keyParts);
+
 }
@@ -1,12 +1,14 @@
 package org.example.ledgerapi.impl;
 
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
 
 import org.example.ledgerapi.State;
 import org.example.ledgerapi.StateDeserializer;
+import org.example.ledgerapi.StateIterator;
 import org.example.ledgerapi.StateList;
 import org.hyperledger.fabric.contract.Context;
-import org.hyperledger.fabric.shim.ChaincodeStub;
 import org.hyperledger.fabric.shim.ledger.CompositeKey;
 
 /*
@@ -21,10 +23,21 @@ SPDX-License-Identifier: Apache-2.0
  */
 public class StateListImpl implements StateList {
 
+    private final static Logger LOG = Logger.getLogger(StateListImpl.class.getName());
+
+    // states read or written through this list, most recently used last
+    private final static int CACHE_SIZE = 64;
+
     private Context ctx;
     private String name;
     private Object supportedClasses;
     private StateDeserializer deserializer;
+    private Map<String, State> cache = new LinkedHashMap<String, State>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, State> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
 
     /**
      * Store Fabric context for subsequent API access, and name of list
@@ -45,21 +58,10 @@ public class StateListImpl implements StateList {
      */
     @Override
     public StateList addState(State state) {
-        System.out.println("Adding state " + this.name);
-        ChaincodeStub stub = this.ctx.getStub();
-        System.out.println("Stub=" + stub);
-        String[] splitKey = state.getSplitKey();
-        System.out.println("Split key " + Arrays.asList(splitKey));
-
-        CompositeKey ledgerKey = stub.createCompositeKey(this.name, splitKey);
-        System.out.println("ledgerkey is ");
-        System.out.println(ledgerKey);
-
-        byte[] data = State.serialize(state);
-        System.out.println("ctx" + this.ctx);
-        System.out.println("stub" + this.ctx.getStub());
-        this.ctx.getStub().putState(ledgerKey.toString(), data);
+        String ledgerKey = state.getLedgerKey(this.name);
+        LOG.fine(() -> "Adding state " + ledgerKey + " to " + this.name);
 
+        putState(ledgerKey, state);
         return this;
     }
 
@@ -67,19 +69,26 @@ public class StateListImpl implements StateList {
      * Get a state from the list using supplied keys. Form composite keys to
      * retrieve state from world state. State data is deserialized into JSON object
      * before being returned.
+     *
+     * A state is read from world state and deserialized at most once while it
+     * stays in the cache of this list. As the list belongs to a single
+     * transaction context, a state written earlier in the transaction is
+     * returned as written.
      */
     @Override
     public State getState(String key) {
+        String ledgerKey = State.ledgerKey(this.name, key);
+        if (this.cache.containsKey(ledgerKey)) {
+            return this.cache.get(ledgerKey);
+        }
 
-        CompositeKey ledgerKey = this.ctx.getStub().createCompositeKey(this.name, State.splitKey(key));
-
-        byte[] data = this.ctx.getStub().getState(ledgerKey.toString());
-        if (data != null) {
-            State state = this.deserializer.deserialize(data);
-            return state;
-        } else {
-            return null;
+        byte[] data = this.ctx.getStub().getState(ledgerKey);
+        State state = null;
+        if (data != null && data.length > 0) {
+            state = this.deserializer.deserialize(data);
         }
+        this.cache.put(ledgerKey, state);
+        return state;
     }
 
     /**
@@ -90,11 +99,28 @@ public class StateListImpl implements StateList {
      */
     @Override
     public StateList updateState(State state) {
-        CompositeKey ledgerKey = this.ctx.getStub().createCompositeKey(this.name, state.getSplitKey());
-        byte[] data = State.serialize(state);
-        this.ctx.getStub().putState(ledgerKey.toString(), data);
-
+        putState(state.getLedgerKey(this.name), state);
         return this;
     }
 
+    @Override
+    public StateIterator getStates(String... keyParts) {
+        CompositeKey partialKey = new CompositeKey(this.name, keyParts);
+        return new StateIterator(this.ctx.getStub().getStateByPartialCompositeKey(partialKey), this.deserializer);
+    }
+
+    @Override
+    public StateIterator getStates(int pageSize, String bookmark, String... keyParts) {
+        CompositeKey partialKey = new CompositeKey(this.name, keyParts);
+        return new StateIterator(
+                this.ctx.getStub().getStateByPartialCompositeKeyWithPagination(partialKey, pageSize, bookmark),
+                this.deserializer);
+    }
+
+    private void putState(String ledgerKey, State state) {
+        byte[] data = State.serialize(state);
+        this.ctx.getStub().putState(ledgerKey, data);
+        this.cache.put(ledgerKey, state);
+    }
+
 }
@@ -0,0 +1,129 @@
+/*
+SPDX-License-Identifier: Apache-2.0
+*/
+package org.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.example.ledgerapi.impl.StateListImplTest;
+import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.CompositeKey;
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIteratorWithMetadata;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public final class PaperListTest {
+
+    private static final String LIST = PaperList.class.getSimpleName();
+
+    private final ChaincodeStub stub = mock(ChaincodeStub.class);
+    private final CommercialPaperContext ctx = mock(CommercialPaperContext.class);
+    private final CommercialPaperContract contract = new CommercialPaperContract();
+
+    PaperListTest() {
+        when(ctx.getStub()).thenReturn(stub);
+        ctx.paperList = new PaperList(ctx);
+    }
+
+    private static CommercialPaper paper(String issuer, String paperNumber, String state) {
+        return CommercialPaper.createInstance(issuer, paperNumber, "2020-05-31", "2020-11-30", 5000000, issuer, state);
+    }
+
+    private static QueryResultsIteratorWithMetadata<KeyValue> page(String bookmark, CommercialPaper... papers) {
+        return StateListImplTest.page(LIST, bookmark, papers);
+    }
+
+    private static String[] paperNumbers(PaperPage page) {
+        return Arrays.stream(page.getPapers()).map(CommercialPaper::getPaperNumber).toArray(String[]::new);
+    }
+
+
+    private static CompositeKey partialKey(String... attributes) {
+        String key = new CompositeKey(LIST, attributes).toString();
+        return argThat(partialKey -> partialKey != null && key.equals(partialKey.toString()));
+    }
+
+    @Nested
+    class QueryByIssuer {
+
+        @Test
+        public void readsFirstPageOfIssuer() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey("MagnetoCorp"), eq(2), eq("")))
+                    .thenReturn(page("b1", paper("MagnetoCorp", "00001", CommercialPaper.ISSUED),
+                            paper("MagnetoCorp", "00002", CommercialPaper.TRADING)));
+
+            PaperPage page = contract.queryByIssuer(ctx, "MagnetoCorp", 2, "");
+
+            assertThat(paperNumbers(page)).containsExactly("00001", "00002");
+            assertThat(page.getBookmark()).isEqualTo("b1");
+        }
+
+        @Test
+        public void continuesFromBookmark() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey("MagnetoCorp"), eq(2), eq("b1")))
+                    .thenReturn(page("", paper("MagnetoCorp", "00003", CommercialPaper.REDEEMED)));
+
+            PaperPage page = contract.queryByIssuer(ctx, "MagnetoCorp", 2, "b1");
+
+            assertThat(paperNumbers(page)).containsExactly("00003");
+            assertThat(page.getBookmark()).isEmpty();
+        }
+
+        @Test
+        public void whenIssuerHasNoPapers() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey("DigiBank"), eq(2), eq("")))
+                    .thenReturn(page(""));
+
+            PaperPage page = contract.queryByIssuer(ctx, "DigiBank", 2, "");
+
+            assertThat(page.getPapers()).isEmpty();
+            assertThat(page.getBookmark()).isEmpty();
+        }
+    }
+
+    @Nested
+    class QueryByState {
+
+        @Test
+        public void keepsMatchingPapersOfFirstPage() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey(), eq(3), eq("")))
+                    .thenReturn(page("b1", paper("MagnetoCorp", "00001", CommercialPaper.ISSUED),
+                            paper("MagnetoCorp", "00002", CommercialPaper.TRADING),
+                            paper("DigiBank", "00001", CommercialPaper.TRADING)));
+
+            PaperPage page = contract.queryByState(ctx, CommercialPaper.TRADING, 3, "");
+
+            assertThat(page.getPapers()).extracting(CommercialPaper::getIssuer).containsExactly("MagnetoCorp", "DigiBank");
+            assertThat(page.getBookmark()).isEqualTo("b1");
+        }
+
+        @Test
+        public void continuesFromBookmark() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey(), eq(3), eq("b1")))
+                    .thenReturn(page("", paper("DigiBank", "00002", CommercialPaper.TRADING)));
+
+            PaperPage page = contract.queryByState(ctx, CommercialPaper.TRADING, 3, "b1");
+
+            assertThat(paperNumbers(page)).containsExactly("00002");
+            assertThat(page.getBookmark()).isEmpty();
+        }
+
+        @Test
+        public void whenNoPaperMatches() {
+            when(stub.getStateByPartialCompositeKeyWithPagination(partialKey(), eq(3), eq("")))
+                    .thenReturn(page("", paper("MagnetoCorp", "00001", CommercialPaper.ISSUED)));
+
+            PaperPage page = contract.queryByState(ctx, CommercialPaper.REDEEMED, 3, "");
+
+            assertThat(page.getPapers()).isEmpty();
+            assertThat(page.getBookmark()).isEmpty();
+        }
+    }
+}
@@ -1,13 +1,12 @@
 import applications.asker.DataQueryIPFSFile;
 import applications.operator.AggregationIPFSFile;
-import com.n1analytics.paillier.EncryptedNumber;
 import com.n1analytics.paillier.PaillierContext;
-import com.n1analytics.paillier.PaillierPublicKey;
 import datatypes.aggregationprocess.AggregationProcess;
 import datatypes.values.EncryptedData;
 import datatypes.values.EncryptedNonces;
 import datatypes.values.IPFSConnection;
 import encryption.NTRUEncryption;
+import encryption.PaillierEncryption;
 import io.ipfs.multihash.Multihash;
 import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
 import org.hyperledger.fabric.contract.Context;
@@ -17,17 +16,23 @@ import org.hyperledger.fabric.contract.annotation.Default;
 import org.hyperledger.fabric.contract.annotation.Transaction;
 import org.hyperledger.fabric.shim.ChaincodeException;
 import org.hyperledger.fabric.shim.ChaincodeStub;
+import org.hyperledger.fabric.shim.ledger.KeyValue;
+import org.hyperledger.fabric.shim.ledger.QueryResultsIterator;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 import java.io.IOException;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Default
 @Contract(name = "aggregationprocess.pailliercontract")
 public class AggregationProcessContract implements ContractInterface {
 
+    private static final String CONTRIBUTION = "contribution";
+
     /**
      * If not present, instantiates a new aggregation process on the ledger with the given id.
      * This id is the same as the corresponding data query. The hash from the data query object
@@ -97,22 +102,11 @@ public class AggregationProcessContract implements ContractInterface {
 
         Map<String, byte[]> map = stub.getTransient();
         EncryptedData newData = EncryptedData.deserialize(map.get("data"));
-        EncryptedData currentData = aggregationProcess.getIpfsFile().getData();
         EncryptedNonces nonces = EncryptedNonces.deserialize(map.get("nonces"));
 
-        if (!currentData.getData().equals("null")) {
-            PaillierPublicKey pk = new PaillierPublicKey(new BigInteger(aggregationProcess.getIpfsFile().getPaillierKey()));
-            PaillierContext pctx = pk.createSignedContext();
-            EncryptedNumber encCurrentData = new EncryptedNumber(pctx, new BigInteger(currentData.getData()),
-                    Integer.parseInt(currentData.getExponent()), true);
-            EncryptedNumber encNewData = new EncryptedNumber(pctx, new BigInteger(newData.getData()),
-                    Integer.parseInt(newData.getExponent()), true);
-
-            encCurrentData = encCurrentData.add(encNewData);
-            currentData.setData(encCurrentData.calculateCiphertext().toString()).setExponent(String.valueOf(encCurrentData.getExponent()));
-        } else currentData.setData(newData.getData()).setExponent(newData.getExponent());
-
-        aggregationProcess.getIpfsFile().addNonces(nonces);
+        AggregationIPFSFile ipfsFile = aggregationProcess.getIpfsFile();
+        ipfsFile.setData(sum(paillierContext(ipfsFile), ipfsFile.getData(), newData));
+        ipfsFile.addNonces(nonces);
 
         String serAggregationProcess;
         if (aggregationProcess.isExpectedParticipants()) {
@@ -125,19 +119,147 @@ public class AggregationProcessContract implements ContractInterface {
     }
 
     /**
-     * Sets the state of the aggregation process corresponding to the given id to closed. Throws an
+     * Adds new data to the aggregation process without touching the aggregation process itself.
+     * The data and nonces are stored under their own composite key, contribution~id~txId, so
+     * concurrent participants never write the same key. The contributions are summed when the
+     * process is finalized or closed. Throws an exception if the process is not in the aggregating
+     * phase or when the given id does not correspond to a data aggregation process in the world
+     * state.
+     *
+     * @param ctx the transaction context.
+     * @param id  the unique id of the aggregation process.
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public void AddShard(Context ctx, String id) {
+        ChaincodeStub stub = retrieveStub(ctx, id);
+        if (AggregationProcess.deserializeState(stub.getState(id)) != AggregationProcess.AggregationProcessState.AGGREGATING)
+            throw new ChaincodeException("Process is not in aggregating phase");
+
+        Map<String, byte[]> map = stub.getTransient();
+        EncryptedData newData = EncryptedData.deserialize(map.get("data"));
+        EncryptedNonces nonces = EncryptedNonces.deserialize(map.get("nonces"));
+
+        Contribution contribution = new Contribution();
+        contribution.data = newData;
+        contribution.nonces.add(EncryptedNonces.serialize(nonces));
+        stub.putStringState(contributionKey(stub, id), contribution.serialize());
+    }
+
+    /**
+     * Counts the participants whose data was added with AddShard but not yet summed.
+     *
+     * @param ctx the transaction context.
+     * @param id  the unique id of the aggregation process.
+     * @return the number of pending contributions.
+     * @throws Exception when the contributions cannot be read.
+     */
+    @Transaction(intent = Transaction.TYPE.EVALUATE)
+    public int Contributions(Context ctx, String id) throws Exception {
+        ChaincodeStub stub = retrieveStub(ctx, id);
+        int count = 0;
+        try (QueryResultsIterator<KeyValue> results = stub.getStateByPartialCompositeKey(CONTRIBUTION, id)) {
+            for (KeyValue result : results)
+                count += Contribution.deserialize(result.getStringValue()).nonces.size();
+        }
+        return count;
+    }
+
+    /**
+     * Sums the pending contributions of the aggregation process into a single partial sum, so a
+     * later Finalize or Close has fewer contributions to read. Does nothing when there is at most
+     * one pending contribution. No more contributions are summed than the process still expects.
+     * <p>
+     * The contributions are read with a range query, so a Compact fails with a
+     * PHANTOM_READ_CONFLICT when an AddShard of the process commits in the same block. Submit it
+     * while few contributions come in, and retry it with a random back-off after a conflict.
+     *
+     * @param ctx the transaction context.
+     * @param id  the unique id of the aggregation process.
+     * @return the number of contributions that were summed.
+     * @throws Exception when the contributions cannot be read.
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public int Compact(Context ctx, String id) throws Exception {
+        ChaincodeStub stub = retrieveStub(ctx, id);
+        AggregationProcess aggregationProcess = AggregationProcess.deserialize(stub.getState(id));
+
+        List<String> keys = new ArrayList<>();
+        Contribution sum = sumContributions(stub, id, paillierContext(aggregationProcess.getIpfsFile()),
+                remainingParticipants(aggregationProcess), keys, new ArrayList<>());
+        if (keys.size() <= 1) return 0;
+
+        for (String key : keys)
+            stub.delState(key);
+        stub.putStringState(contributionKey(stub, id), sum.serialize());
+        return keys.size();
+    }
+
+    /**
+     * Sums the pending contributions into the aggregation process once the expected number of
+     * participants contributed, closes the process and emits the ParticipantsReached event.
+     * Nothing is written while fewer participants contributed, or when the process is no longer
+     * aggregating, so the transaction can be submitted by every participant after its AddShard.
+     * Contributions beyond the expected number of participants are not summed, and are removed.
+     * <p>
+     * The contributions are read with a range query, so a Finalize fails with a
+     * PHANTOM_READ_CONFLICT when an AddShard of the process commits in the same block. The
+     * participants retry it with a random back-off, and the last participants to contribute are
+     * the ones whose Finalize closes the process.
+     *
+     * @param ctx the transaction context.
+     * @param id  the unique id of the aggregation process.
+     * @return the aggregation process.
+     * @throws Exception when the contributions cannot be read, or the connection with IPFS cannot
+     *                   be made.
+     */
+    @Transaction(intent = Transaction.TYPE.SUBMIT)
+    public String Finalize(Context ctx, String id) throws Exception {
+        ChaincodeStub stub = retrieveStub(ctx, id);
+        AggregationProcess aggregationProcess = AggregationProcess.deserialize(stub.getState(id));
+        if (!aggregationProcess.isAggregating()) return stub.getStringState(id);
+
+        List<String> keys = new ArrayList<>();
+        List<String> excess = new ArrayList<>();
+        AggregationIPFSFile ipfsFile = aggregationProcess.getIpfsFile();
+        int remaining = remainingParticipants(aggregationProcess);
+        Contribution sum = sumContributions(stub, id, paillierContext(ipfsFile), remaining, keys, excess);
+        if (sum.nonces.size() < remaining)
+            return stub.getStringState(id);
+
+        addContributions(stub, aggregationProcess, sum, keys);
+        for (String key : excess)
+            stub.delState(key);
+        aggregationProcess.setClosed();
+        String serAggregationProcess = aggregationProcess.serialize();
+        stub.setEvent("ParticipantsReached", serAggregationProcess.getBytes(StandardCharsets.UTF_8));
+        stub.putStringState(id, serAggregationProcess);
+        return serAggregationProcess;
+    }
+
+    /**
+     * Sets the state of the aggregation process corresponding to the given id to closed. Contributions
+     * added with AddShard that were not summed yet are added to the process first, up to the expected
+     * number of participants, the rest is removed. Throws an
      * exception when the given id does not correspond to a data aggregation process in the world state.
      *
      * @param ctx the transaction context.
      * @param id  the unique id of the aggregation process.
-     * @throws IOException when the connection with IPFS cannot be made.
+     * @throws Exception when the contributions cannot be read, or the connection with IPFS cannot be made.
      */
     @Transaction(intent = Transaction.TYPE.SUBMIT)
-    public String Close(Context ctx, String id) throws IOException {
+    public String Close(Context ctx, String id) throws Exception {
         ChaincodeStub stub = retrieveStub(ctx, id);
 
         AggregationProcess aggregationProcess = AggregationProcess.deserialize(stub.getState(id));
 
+        List<String> keys = new ArrayList<>();
+        List<String> excess = new ArrayList<>();
+        Contribution sum = sumContributions(stub, id, paillierContext(aggregationProcess.getIpfsFile()),
+                remainingParticipants(aggregationProcess), keys, excess);
+        addContributions(stub, aggregationProcess, sum, keys);
+        for (String key : excess)
+            stub.delState(key);
+
         aggregationProcess.setClosed();
         String serAggregationProcess = aggregationProcess.serialize();
         stub.putStringState(id, serAggregationProcess);
@@ -159,19 +281,28 @@ public class AggregationProcessContract implements ContractInterface {
     }
 
     /**
-     * The data aggregation process corresponding to the id is removed from the world state. Throws
-     * an exception if the given id does not correspond to a data aggregation process in the world
-     * state.
+     * The data aggregation process corresponding to the id is removed from the world state, together
+     * with the contributions that were not summed yet. Throws an exception if the given id does not
+     * correspond to a data aggregation process in the world state.
      *
      * @param ctx the transaction context.
      * @param id  the unique id of the aggregation process.
      * @return the aggregation process.
+     * @throws Exception when the contributions cannot be read.
      */
     @Transaction(intent = Transaction.TYPE.EVALUATE)
-    public String Remove(Context ctx, String id) {
+    public String Remove(Context ctx, String id) throws Exception {
         ChaincodeStub stub = retrieveStub(ctx, id);
         String aggregationProcess = stub.getStringState(id);
         stub.delState(id);
+
+        List<String> keys = new ArrayList<>();
+        try (QueryResultsIterator<KeyValue> results = stub.getStateByPartialCompositeKey(CONTRIBUTION, id)) {
+            for (KeyValue result : results)
+                keys.add(result.getKey());
+        }
+        for (String key : keys)
+            stub.delState(key);
         return aggregationProcess;
     }
 
@@ -203,4 +334,111 @@ public class AggregationProcessContract implements ContractInterface {
 
         return stub;
     }
+
+    /**
+     * Reads the pending contributions of an aggregation process and sums them homomorphically, in
+     * the order of their keys, as long as the participants in the sum do not exceed the limit.
+     *
+     * @param stub   the chaincode stub.
+     * @param id     the unique id of the aggregation process.
+     * @param pctx   the Paillier context of the aggregation process.
+     * @param limit  the largest number of participants in the sum.
+     * @param keys   the list the keys of the contributions summed are added to.
+     * @param excess the list the keys of the contributions that did not fit are added to.
+     * @return the sum of the contributions, with the nonces of every participant.
+     * @throws Exception when the contributions cannot be read.
+     */
+    private static Contribution sumContributions(ChaincodeStub stub, String id, PaillierContext pctx, int limit,
+                                                 List<String> keys, List<String> excess) throws Exception {
+        Contribution sum = new Contribution();
+        try (QueryResultsIterator<KeyValue> results = stub.getStateByPartialCompositeKey(CONTRIBUTION, id)) {
+            for (KeyValue result : results) {
+                Contribution contribution = Contribution.deserialize(result.getStringValue());
+                if (sum.nonces.size() + contribution.nonces.size() > limit) {
+                    excess.add(result.getKey());
+                    continue;
+                }
+                sum.data = sum(pctx, sum.data, contribution.data);
+                sum.nonces.addAll(contribution.nonces);
+                keys.add(result.getKey());
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @param aggregationProcess the aggregation process.
+     * @return the number of participants whose data is expected but not yet in the process.
+     */
+    private static int remainingParticipants(AggregationProcess aggregationProcess) {
+        return Math.max(0, aggregationProcess.getNrExpectedParticipants() - aggregationProcess.getIpfsFile().getNonces().size());
+    }
+
+    /**
+     * Adds summed contributions to the aggregation process and removes them from the world state.
+     *
+     * @param stub               the chaincode stub.
+     * @param aggregationProcess the aggregation process.
+     * @param sum                the summed contributions.
+     * @param keys               the keys of the summed contributions.
+     * @throws IOException when the connection with IPFS cannot be made.
+     */
+    private static void addContributions(ChaincodeStub stub, AggregationProcess aggregationProcess, Contribution sum, List<String> keys) throws IOException {
+        if (keys.isEmpty()) return;
+
+        AggregationIPFSFile ipfsFile = aggregationProcess.getIpfsFile();
+        ipfsFile.setData(sum(paillierContext(ipfsFile), ipfsFile.getData(), sum.data));
+        for (String nonces : sum.nonces)
+            ipfsFile.addNonces(EncryptedNonces.deserialize(nonces));
+        for (String key : keys)
+            stub.delState(key);
+    }
+
+    /**
+     * Adds two Paillier ciphertexts. Data that is not set yet is treated as zero.
+     *
+     * @param pctx    the Paillier context of the aggregation process.
+     * @param current the current data, may be null or unset.
+     * @param newData the data to add.
+     * @return the sum.
+     */
+    private static EncryptedData sum(PaillierContext pctx, EncryptedData current, EncryptedData newData) {
+        if (current == null || current.isEmpty())
+            return new EncryptedData(newData.getCiphertext(), Integer.parseInt(newData.getExponent()));
+
+        return PaillierEncryption.add(pctx, current, newData);
+    }
+
+    private static PaillierContext paillierContext(AggregationIPFSFile ipfsFile) {
+        return PaillierEncryption.signedContext(ipfsFile.getPaillierKey());
+    }
+
+    private static String contributionKey(ChaincodeStub stub, String id) {
+        return stub.createCompositeKey(CONTRIBUTION, id, stub.getTxId()).toString();
+    }
+
+    /**
+     * The data and nonces of one or more participants, stored under a contribution key.
+     */
+    private static class Contribution {
+
+        private EncryptedData data;
+        private final List<String> nonces = new ArrayList<>();
+
+        static Contribution deserialize(String value) {
+            JSONObject json = new JSONObject(value);
+            Contribution contribution = new Contribution();
+            contribution.data = EncryptedData.deserialize(json.getString("data"));
+            for (Object nonces : json.getJSONArray("nonces"))
+                contribution.nonces.add((String) nonces);
+            return contribution;
+        }
+
+        String serialize() {
+            return new JSONObject()
+                    .put("data", this.data.serialize())
+                    .put("nonces", new JSONArray(this.nonces))
+                    .toString();
+        }
+    }
 }
\ No newline at end of file
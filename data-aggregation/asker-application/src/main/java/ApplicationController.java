@@ -2,25 +2,23 @@ import applications.asker.DataQueryKeyStore;
 import applications.asker.DataQueryTransactions;
 import applications.asker.IdFactory;
 import applications.operator.ParticipantTransaction;
-import datatypes.dataquery.DataQuery;
-import datatypes.values.EncryptedData;
-import datatypes.values.EncryptedNonce;
-import datatypes.values.EncryptedNonces;
 import datatypes.values.Pair;
-import org.bouncycastler.crypto.InvalidCipherTextException;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.ContractException;
 import org.hyperledger.fabric.shim.ChaincodeException;
+import org.json.JSONObject;
 
 import java.io.IOException;
-import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 public class ApplicationController {
 
+    private static final QueryDecryptor decryptor = new QueryDecryptor(Runtime.getRuntime().availableProcessors(), ResultSink.STDOUT);
+
     /**
      * The main loop of the application is started. The user will be prompted with options and can
      * decide by entering a name which functionality to use. The existing functionalities are
@@ -74,7 +72,18 @@ public class ApplicationController {
     }
 
     /**
-     * The listener for the data query contract is created and set.
+     * Replaces the sink the results of the data queries go to, by default standard out.
+     *
+     * @param sink the sink.
+     */
+    public static void setResultSink(ResultSink sink) {
+        decryptor.setSink(sink);
+    }
+
+    /**
+     * The listener for the data query contract is created and set. The result of a DoneQuery event
+     * of a query of this asker is decrypted by the query decryptor, the listener only reads the id
+     * of the query from the payload.
      *
      * @param contract the data query contract.
      */
@@ -82,27 +91,12 @@ public class ApplicationController {
         Consumer<ContractEvent> consumer = contractEvent -> {
             if (!contractEvent.getTransactionEvent().isValid() || !"DoneQuery".equals(contractEvent.getName())) return;
 
-            try {
-                DataQuery dataQuery = DataQuery.deserialize(contractEvent.getPayload().get());
-                EncryptedData data = dataQuery.getIpfsFile().getData();
-                EncryptedNonces nonces = dataQuery.getIpfsFile().getNonces();
-                DataQueryKeyStore keystore = ApplicationModel.getInstance().getKey(dataQuery.getId());
+            byte[] payload = contractEvent.getPayload().get();
+            String id = new JSONObject(new String(payload, StandardCharsets.UTF_8)).getString("id");
+            DataQueryKeyStore keystore = ApplicationModel.getInstance().getKey(id);
+            if (keystore == null) return;
 
-                BigInteger dataAndNonces = keystore.getPaillierEncryption().decrypt(data);
-                for (EncryptedNonce nonce : nonces.getNonces()) {
-                    byte[] decryptedNonce = keystore.getNtruEncryption().decrypt(nonce.getNonce());
-                    dataAndNonces = dataAndNonces.subtract(new BigInteger(new String(decryptedNonce)));
-                }
-
-                System.out.println("Result of " + dataQuery.getId() + " is " + dataAndNonces.toString());
-
-            } catch (IOException e) {
-                System.err.println("Could not deserialize data query asset!");
-                e.printStackTrace();
-            } catch (InvalidCipherTextException e) {
-                System.err.println("Could not decrypt nonces with NTRUEncrypt!");
-                e.printStackTrace();
-            }
+            decryptor.submit(id, payload, keystore);
         };
         contract.addContractListener(consumer);
     }
@@ -1,19 +1,21 @@
 
 import applications.asker.DataQueryKeyStore;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ApplicationModel {
 
-    private static ApplicationModel applicationModel = null;
+    // the model is shared by the workers of the query decryptor
+    private static final ApplicationModel applicationModel = new ApplicationModel();
 
-    private final HashMap<String, DataQueryKeyStore> queryKeys;
-    private final HashSet<String> ids;
+    private final Map<String, DataQueryKeyStore> queryKeys;
+    private final Set<String> ids;
 
     private ApplicationModel() {
-        queryKeys = new HashMap<>();
-        ids = new HashSet<>();
+        queryKeys = new ConcurrentHashMap<>();
+        ids = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -40,7 +42,6 @@ public class ApplicationModel {
     }
 
     public static ApplicationModel getInstance() {
-        if (applicationModel == null) applicationModel = new ApplicationModel();
         return applicationModel;
     }
 
@@ -52,7 +53,7 @@ public class ApplicationModel {
         queryKeys.put(id, keys);
     }
 
-    public HashSet<String> getIds() {
+    public Set<String> getIds() {
         return ids;
     }
 
@@ -0,0 +1,101 @@
+import applications.asker.DataQueryKeyStore;
+import datatypes.dataquery.DataQuery;
+import datatypes.values.EncryptedNonce;
+import org.bouncycastler.crypto.InvalidCipherTextException;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decrypts the results of finished data queries on a bounded pool of threads. The Paillier sum
+ * and the NTRUEncrypt nonces of the operators of a query are decrypted as separate tasks, so they
+ * run in parallel, and the queries that finish together are decrypted concurrently. Nothing waits
+ * on another task inside the pool, the decrypted nonces are subtracted as they complete. Results
+ * go to the result sink.
+ */
+public class QueryDecryptor {
+
+    private final ExecutorService workers;
+    private volatile ResultSink sink;
+
+    /**
+     * @param nrThreads the number of decryptions that can run at the same time.
+     * @param sink      the sink the results go to.
+     */
+    public QueryDecryptor(int nrThreads, ResultSink sink) {
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(nrThreads, runnable -> {
+            Thread thread = new Thread(runnable, "query-decryptor-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sink = sink;
+    }
+
+    /**
+     * Deserializes the data query from the payload of its DoneQuery event and decrypts its result.
+     * Returns at once, the result is passed to the sink when it is ready.
+     *
+     * @param id       the unique id of the data query.
+     * @param payload  the payload of the DoneQuery event.
+     * @param keystore the keys of the data query.
+     * @return the result, also completed when decryption failed.
+     */
+    public CompletableFuture<BigInteger> submit(String id, byte[] payload, DataQueryKeyStore keystore) {
+        return CompletableFuture.supplyAsync(() -> deserialize(payload), this.workers)
+                .thenCompose(dataQuery -> decrypt(dataQuery, keystore))
+                .whenComplete((result, e) -> {
+                    if (e == null) this.sink.accept(id, result);
+                    else report(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                });
+    }
+
+    /**
+     * Replaces the sink the results go to.
+     *
+     * @param sink the sink.
+     */
+    public void setSink(ResultSink sink) {
+        this.sink = sink;
+    }
+
+    private CompletableFuture<BigInteger> decrypt(DataQuery dataQuery, DataQueryKeyStore keystore) {
+        CompletableFuture<BigInteger> result = CompletableFuture.supplyAsync(
+                () -> keystore.getPaillierEncryption().decrypt(dataQuery.getIpfsFile().getData()), this.workers);
+        for (EncryptedNonce nonce : dataQuery.getIpfsFile().getNonces().getNonces()) {
+            CompletableFuture<BigInteger> decryptedNonce = CompletableFuture.supplyAsync(() -> decryptNonce(keystore, nonce), this.workers);
+            result = result.thenCombine(decryptedNonce, BigInteger::subtract);
+        }
+        return result;
+    }
+
+    private static DataQuery deserialize(byte[] payload) {
+        try {
+            return DataQuery.deserialize(payload);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static BigInteger decryptNonce(DataQueryKeyStore keystore, EncryptedNonce nonce) {
+        try {
+            byte[] decryptedNonce = keystore.getNtruEncryption().decrypt(nonce.getNonce());
+            return new BigInteger(new String(decryptedNonce, StandardCharsets.UTF_8));
+        } catch (InvalidCipherTextException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static void report(Throwable e) {
+        if (e instanceof IOException) System.err.println("Could not deserialize data query asset!");
+        else if (e instanceof InvalidCipherTextException) System.err.println("Could not decrypt nonces with NTRUEncrypt!");
+        else System.err.println("Could not decrypt the result of the data query!");
+        e.printStackTrace();
+    }
+}
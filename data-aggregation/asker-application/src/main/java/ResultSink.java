@@ -0,0 +1,19 @@
+import java.math.BigInteger;
+
+/**
+ * Receives the results of the data queries of the asker. A sink is called from the workers of
+ * the QueryDecryptor, so results of different queries may arrive at the same time.
+ */
+public interface ResultSink {
+
+    /**
+     * Prints the result to standard out.
+     */
+    ResultSink STDOUT = (id, result) -> System.out.println("Result of " + id + " is " + result);
+
+    /**
+     * @param id     the unique id of the data query.
+     * @param result the aggregated data of the participants.
+     */
+    void accept(String id, BigInteger result);
+}
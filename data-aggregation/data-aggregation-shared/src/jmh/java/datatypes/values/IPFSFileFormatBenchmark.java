@@ -0,0 +1,89 @@
+package datatypes.values;
+
+import applications.operator.AggregationIPFSFile;
+import encryption.NTRUEncryption;
+import org.bouncycastler.crypto.InvalidCipherTextException;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionKeyGenerationParameters;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the text format of an AggregationIPFSFile with the binary format, for a process with
+ * the given number of operators and participants.
+ * <p>
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IPFSFileFormatBenchmark {
+
+    @Param({"5"})
+    private int nrOperators;
+
+    @Param({"10", "200"})
+    private int nrParticipants;
+
+    private AggregationIPFSFile file;
+    private String text;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws InvalidCipherTextException {
+        NTRUEncryption ntru = new NTRUEncryption(NTRUEncryptionKeyGenerationParameters.APR2011_743_FAST);
+        String serPk = NTRUEncryption.serialize(ntru.getPublic());
+        Random random = new Random(42);
+
+        NTRUEncryptionPublicKeyParameters[] operatorKeys = new NTRUEncryptionPublicKeyParameters[nrOperators];
+        Arrays.fill(operatorKeys, ntru.getPublic());
+
+        ArrayList<EncryptedNonces> nonces = new ArrayList<>();
+        for (int i = 0; i < nrParticipants; i++) {
+            EncryptedNonce[] participantNonces = new EncryptedNonce[nrOperators];
+            for (int j = 0; j < nrOperators; j++)
+                participantNonces[j] = new EncryptedNonce(NTRUEncryption.encrypt(
+                        new BigInteger(64, random).toString().getBytes(StandardCharsets.UTF_8), serPk));
+            nonces.add(new EncryptedNonces(participantNonces));
+        }
+
+        file = new AggregationIPFSFile(new BigInteger(2048, random).toString(), ntru.getPublic(),
+                new EncryptedData(new BigInteger(4096, random), 0), operatorKeys, nonces);
+        text = file.serialize();
+        binary = file.toBytes();
+    }
+
+    @Benchmark
+    public byte[] textSerialize() {
+        return file.serialize().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public AggregationIPFSFile textDeserialize() {
+        return AggregationIPFSFile.deserialize(text);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return file.toBytes();
+    }
+
+    @Benchmark
+    public AggregationIPFSFile binaryDeserialize() throws IOException {
+        return AggregationIPFSFile.fromBytes(binary);
+    }
+}
@@ -0,0 +1,70 @@
+package encryption;
+
+import com.n1analytics.paillier.PaillierContext;
+import datatypes.values.EncryptedData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Paillier encryption, homomorphic addition and CRT decryption on the pure Java and the
+ * GMP arithmetic backend, for 2048 and 4096 bit keys. Encryption computes its own obfuscator, as
+ * no PaillierObfuscatorPool is prepared. The gmp runs fail in setup when libgmp is not installed.
+ * <p>
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaillierArithmeticBenchmark {
+
+    @Param({"java", "gmp"})
+    private String backend;
+
+    @Param({"2048", "4096"})
+    private int keySize;
+
+    private PaillierEncryption paillier;
+    private String modulus;
+    private PaillierContext context;
+    private BigInteger measurement;
+    private EncryptedData a;
+    private EncryptedData b;
+
+    @Setup
+    public void setup() {
+        if ("gmp".equals(backend) && !GmpArithmeticBackend.isAvailable())
+            throw new IllegalStateException("libgmp could not be loaded");
+        PaillierEncryption.setArithmeticBackend("gmp".equals(backend) ? new GmpArithmeticBackend() : new JavaArithmeticBackend());
+
+        paillier = new PaillierEncryption(keySize);
+        modulus = paillier.serialize();
+        context = PaillierEncryption.signedContext(modulus);
+        measurement = BigInteger.valueOf(13478);
+        a = PaillierEncryption.encrypt(measurement, modulus);
+        b = PaillierEncryption.encrypt(BigInteger.valueOf(Integer.MAX_VALUE), modulus);
+    }
+
+    @Benchmark
+    public EncryptedData encrypt() {
+        return PaillierEncryption.encrypt(measurement, modulus);
+    }
+
+    @Benchmark
+    public EncryptedData add() {
+        return PaillierEncryption.add(context, a, b);
+    }
+
+    @Benchmark
+    public BigInteger decrypt() {
+        return paillier.decrypt(a);
+    }
+}
@@ -5,10 +5,15 @@ import datatypes.values.EncryptedData;
 import datatypes.values.EncryptedNonce;
 import datatypes.values.EncryptedNonces;
 import datatypes.values.IPFSFile;
+import datatypes.values.IPFSFileFormat;
 import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class DataQueryIPFSFile extends IPFSFile {
 
     private final EncryptedNonces nonces;
@@ -24,6 +29,18 @@ public class DataQueryIPFSFile extends IPFSFile {
 
     public void addNonce(EncryptedNonce nonce) {
         this.nonces.addNonce(nonce);
+        setDirty();
+    }
+
+    /**
+     * Copies the DataQueryIPFSFile. The keys and nonces are shared, the array holding the nonces
+     * is copied.
+     *
+     * @return the copy.
+     */
+    @Override
+    public DataQueryIPFSFile copy() {
+        return new DataQueryIPFSFile(getPaillierKey(), getPostqKey(), getData() == null ? null : getData().copy(), this.nonces.copy());
     }
 
     /**
@@ -62,4 +79,40 @@ public class DataQueryIPFSFile extends IPFSFile {
 
         return new DataQueryIPFSFile(superfile.getPaillierKey(), superfile.getPostqKey(), superfile.getData(), nonces);
     }
+
+    /**
+     * The DataQueryIPFSFile gets serialized into the binary format.
+     *
+     * @return the serialized DataQueryIPFSFile.
+     */
+    @Override
+    public byte[] toBytes() {
+        IPFSFileFormat.Writer writer = writeTo(IPFSFileFormat.writer(IPFSFileFormat.DATA_QUERY));
+        EncryptedNonce[] nonces = this.nonces.getNonces();
+        writer.writeInt(nonces.length);
+        for (EncryptedNonce nonce : nonces)
+            writer.writeNonce(nonce);
+        return writer.toByteArray();
+    }
+
+    /**
+     * The binary format, or the text format used before, gets deserialized into a
+     * DataQueryIPFSFile object.
+     *
+     * @param file the serialized DataQueryIPFSFile.
+     * @return the DataQueryIPFSFile object.
+     * @throws IOException when the file is not valid.
+     */
+    public static DataQueryIPFSFile fromBytes(byte[] file) throws IOException {
+        if (!IPFSFileFormat.isBinary(file)) return DataQueryIPFSFile.deserialize(new String(file, UTF_8));
+
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.DATA_QUERY);
+        IPFSFile superfile = IPFSFile.readFrom(buffer);
+
+        EncryptedNonce[] nonces = new EncryptedNonce[IPFSFileFormat.readCount(buffer)];
+        for (int i = 0; i < nonces.length; i++)
+            nonces[i] = IPFSFileFormat.readNonce(buffer);
+
+        return new DataQueryIPFSFile(superfile.getPaillierKey(), superfile.getPostqKey(), superfile.getData(), new EncryptedNonces(nonces));
+    }
 }
@@ -4,14 +4,18 @@ import datatypes.values.EncryptedData;
 import datatypes.values.EncryptedNonce;
 import datatypes.values.EncryptedNonces;
 import datatypes.values.IPFSFile;
+import datatypes.values.IPFSFileFormat;
 import encryption.NTRUEncryption;
 import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class AggregationIPFSFile extends IPFSFile {
 
     private final NTRUEncryptionPublicKeyParameters[] operatorKeys;
@@ -23,6 +27,21 @@ public class AggregationIPFSFile extends IPFSFile {
         this.nonces = nonces;
     }
 
+    /**
+     * Copies the AggregationIPFSFile. The keys and nonces are shared, the arrays and lists holding
+     * them are copied.
+     *
+     * @return the copy.
+     */
+    @Override
+    public AggregationIPFSFile copy() {
+        ArrayList<EncryptedNonces> nonces = new ArrayList<>(this.nonces.size());
+        for (EncryptedNonces participantNonces : this.nonces)
+            nonces.add(participantNonces.copy());
+        return new AggregationIPFSFile(getPaillierKey(), getPostqKey(), getData() == null ? null : getData().copy(),
+                this.operatorKeys.clone(), nonces);
+    }
+
     /**
      * An EncryptedNonces is added to the nonces ArrayList.
      *
@@ -30,6 +49,7 @@ public class AggregationIPFSFile extends IPFSFile {
      */
     public void addNonces(EncryptedNonces newNonces) throws IOException {
         this.nonces.add(newNonces);
+        setDirty();
     }
 
     /**
@@ -44,6 +64,7 @@ public class AggregationIPFSFile extends IPFSFile {
             if (this.operatorKeys[i] == null) {
                 if (newKey != null) {
                     this.operatorKeys[i] = newKey;
+                    setDirty();
                 }
                 return i;
             }
@@ -116,6 +137,58 @@ public class AggregationIPFSFile extends IPFSFile {
         return builder.toString();
     }
 
+    /**
+     * Serializes the AggregationIPFSFile into the binary format.
+     *
+     * @return the serialized AggregationIPFSFile.
+     */
+    @Override
+    public byte[] toBytes() {
+        IPFSFileFormat.Writer writer = writeTo(IPFSFileFormat.writer(IPFSFileFormat.AGGREGATION));
+
+        writer.writeInt(this.operatorKeys.length);
+        for (NTRUEncryptionPublicKeyParameters key : this.operatorKeys)
+            writer.writeKey(key);
+
+        writer.writeInt(this.nonces.size());
+        for (EncryptedNonces participantNonces : this.nonces) {
+            writer.writeInt(participantNonces.getNonces().length);
+            for (EncryptedNonce nonce : participantNonces.getNonces())
+                writer.writeNonce(nonce);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Deserializes an AggregationIPFSFile from the binary format, or from the text format used
+     * before.
+     *
+     * @param file the serialized AggregationIPFSFile.
+     * @return the AggregationIPFSFile.
+     * @throws IOException when the file is not valid.
+     */
+    public static AggregationIPFSFile fromBytes(byte[] file) throws IOException {
+        if (!IPFSFileFormat.isBinary(file)) return AggregationIPFSFile.deserialize(new String(file, UTF_8));
+
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.AGGREGATION);
+        IPFSFile superfile = IPFSFile.readFrom(buffer);
+
+        NTRUEncryptionPublicKeyParameters[] opKeys = new NTRUEncryptionPublicKeyParameters[IPFSFileFormat.readCount(buffer)];
+        for (int i = 0; i < opKeys.length; i++)
+            opKeys[i] = IPFSFileFormat.readKey(buffer);
+
+        int nrParticipants = IPFSFileFormat.readCount(buffer);
+        ArrayList<EncryptedNonces> nonces = new ArrayList<>(nrParticipants);
+        for (int i = 0; i < nrParticipants; i++) {
+            EncryptedNonce[] participantNonces = new EncryptedNonce[IPFSFileFormat.readCount(buffer)];
+            for (int j = 0; j < participantNonces.length; j++)
+                participantNonces[j] = IPFSFileFormat.readNonce(buffer);
+            nonces.add(new EncryptedNonces(participantNonces));
+        }
+
+        return new AggregationIPFSFile(superfile.getPaillierKey(), superfile.getPostqKey(), superfile.getData(), opKeys, nonces);
+    }
+
     public ArrayList<EncryptedNonces> getNonces() {
         return nonces;
     }
@@ -36,7 +36,7 @@ public class AggregationTransactions extends ParticipantTransaction {
         Map<String, byte[]> transientData = new HashMap<>();
 
         transientData.put("operator", NTRUEncryption.serialize(keystore.getNtruEncryption().getPublic()).getBytes(StandardCharsets.UTF_8));
-        byte[] index = repeat(contractAgg.createTransaction("Start").setTransient(transientData), new String[]{
+        byte[] index = repeat(contractAgg, "Start", transientData, new String[]{
                 dataQuery.getId(),
                 String.valueOf(dataQuery.getSettings().getNrOperators()),
                 String.valueOf(nrExpectedParticipants),
@@ -68,7 +68,44 @@ public class AggregationTransactions extends ParticipantTransaction {
         transientData.put("data", data.serialize().getBytes(StandardCharsets.UTF_8));
         transientData.put("nonces", EncryptedNonces.serialize(nonces).getBytes(StandardCharsets.UTF_8));
 
-        repeat(contract.createTransaction("Add").setTransient(transientData), new String[]{id});
+        repeat(contract, "Add", transientData, new String[]{id});
+    }
+
+    /**
+     * The AddShard transaction in the aggregation process contract is submitted, which stores the
+     * obfuscated data and nonces under a key of their own instead of updating the aggregation
+     * process asset. The Finalize transaction is submitted afterwards, which sums the contributions
+     * into the aggregation process asset once the expected number of participants contributed and
+     * does nothing before. It is submitted unconditionally, a count of the contributions evaluated
+     * on a peer that lags behind could otherwise keep every participant from finalizing. A Finalize
+     * that keeps conflicting with concurrent contributions is left to the participants after this
+     * one, or to the Close at the time limit.
+     *
+     * @param contract           the aggregation process contract.
+     * @param aggregationProcess the data aggregation asset.
+     * @param data               the obfuscated data that will be added to the data in the data
+     *                           aggregation asset.
+     * @param nonces             the nonces that will be added to the list of nonces in the data
+     *                           aggregation asset.
+     * @throws ContractException    when an exception occurs in the aggregation process contract.
+     *                              An exception occurs when the aggregation process asset is not in the aggregation phase,
+     *                              or does not exist.
+     * @throws InterruptedException thrown by the submit method.
+     * @throws TimeoutException     thrown by the submit method.
+     */
+    public static void addShard(Contract contract, AggregationProcess aggregationProcess, EncryptedData data, EncryptedNonces nonces) throws ContractException, InterruptedException, TimeoutException {
+        Map<String, byte[]> transientData = new HashMap<>();
+        transientData.put("data", data.serialize().getBytes(StandardCharsets.UTF_8));
+        transientData.put("nonces", EncryptedNonces.serialize(nonces).getBytes(StandardCharsets.UTF_8));
+
+        String id = aggregationProcess.getId();
+        repeat(contract, "AddShard", transientData, new String[]{id});
+
+        try {
+            repeat(contract, "Finalize", null, new String[]{id});
+        } catch (RuntimeException e) {
+            System.out.println("Could not finalize " + id + ", leaving it to the other participants: " + e.getCause());
+        }
     }
 
     /**
@@ -8,17 +8,30 @@ import encryption.NTRUEncryption;
 import encryption.PaillierEncryption;
 import org.bouncycastler.crypto.InvalidCipherTextException;
 
-import java.io.File;
-import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 public class DataAndNonces {
 
+    private static final Logger LOG = Logger.getLogger(DataAndNonces.class.getName());
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private static volatile MeasurementSource source;
+
     /**
      * Selects a random positive int for both the data and the nonces. Obfuscates
      * the data with the generated nonces. Encrypts the obfuscated data with the
-     * Paillier encryption scheme and the nonces with the NTRUEncrypt scheme.
+     * Paillier encryption scheme and the nonces with the NTRUEncrypt scheme. The
+     * nonces are encrypted in parallel on the common fork-join pool, alongside the
+     * Paillier encryption of the data.
      *
      * @param modulus        the modulus of the public key of the paillier public key.
      * @param postQuantumPks the NTRUEncrypt public key.
@@ -26,35 +39,66 @@ public class DataAndNonces {
      * @throws InvalidCipherTextException thrown by the NTRUEncrypt encrypt method.
      */
     public static Pair<EncryptedData, EncryptedNonces> generateDataAndNonces(String modulus, String[] postQuantumPks) throws InvalidCipherTextException {
-        BigInteger data = new BigInteger(DataAndNonces.getData());
-        System.out.println("data: " + data);
-        EncryptedNonces nonces = new EncryptedNonces(new EncryptedNonce[postQuantumPks.length]);
-        for (String postQuantumPk : postQuantumPks) {
-            String nonce = String.valueOf(new Random().nextInt(Integer.MAX_VALUE));
+        BigInteger measurement = BigInteger.valueOf(getMeasurementSource().next());
+        LOG.finest(() -> "data: " + measurement);
+        BigInteger data = measurement;
+        String[] nonces = new String[postQuantumPks.length];
+        for (int i = 0; i < nonces.length; i++) {
+            String nonce = String.valueOf(random.nextInt(Integer.MAX_VALUE));
             data = data.add(new BigInteger(nonce));
-            System.out.println("nonce: " + nonce);
+            LOG.finest(() -> "nonce: " + nonce);
+            nonces[i] = nonce;
+        }
 
-            nonces.addNonce(new EncryptedNonce(NTRUEncryption.encrypt(nonce.getBytes(), postQuantumPk)));
+        BigInteger obfuscatedData = data;
+        CompletableFuture<EncryptedData> encData = CompletableFuture.supplyAsync(() -> PaillierEncryption.encrypt(obfuscatedData, modulus));
+        try {
+            EncryptedNonce[] encNonces = IntStream.range(0, nonces.length).parallel()
+                    .mapToObj(i -> encryptNonce(nonces[i], postQuantumPks[i]))
+                    .toArray(EncryptedNonce[]::new);
+            return new Pair<>(encData.join(), new EncryptedNonces(encNonces));
+        } catch (RuntimeException e) {
+            // the stream may rethrow a copy of the exception, so look for the cause along the chain
+            for (Throwable cause = e; cause != null; cause = cause.getCause())
+                if (cause instanceof InvalidCipherTextException) throw (InvalidCipherTextException) cause;
+            throw e;
+        }
+    }
+
+    private static EncryptedNonce encryptNonce(String nonce, String postQuantumPk) {
+        try {
+            return new EncryptedNonce(NTRUEncryption.encrypt(nonce.getBytes(StandardCharsets.UTF_8), postQuantumPk));
+        } catch (InvalidCipherTextException e) {
+            throw new IllegalStateException(e);
         }
-        return new Pair<>(PaillierEncryption.encrypt(data, modulus), nonces);
     }
 
     /**
-     * Reads a random data entry from a dataset.
+     * Sets the source of the measurements that are contributed.
      *
-     * @return the data entry from the dataset.
+     * @param measurementSource the source of the measurements.
      */
-    private static String getData() {
-        try {
-            File f = new File("src/main/resources/AEP_hourly.csv");
-            RandomAccessFile file = new RandomAccessFile(f, "r");
-            int line = new Random().nextInt(7000);
-            System.out.println("line: " + line);
-            file.seek(28 * line + 16);
-            return file.readLine().substring(20, 25);
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Could not find dataset");
+    public static void setMeasurementSource(MeasurementSource measurementSource) {
+        source = measurementSource;
+    }
+
+    /**
+     * Returns the source of the measurements, by default random entries of the dataset.
+     *
+     * @return the source of the measurements.
+     */
+    public static MeasurementSource getMeasurementSource() {
+        if (source == null) {
+            synchronized (DataAndNonces.class) {
+                if (source == null) {
+                    try {
+                        source = new MappedCsvMeasurementSource(Paths.get("src/main/resources/AEP_hourly.csv"), 1, false);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not find dataset", e);
+                    }
+                }
+            }
         }
+        return source;
     }
 }
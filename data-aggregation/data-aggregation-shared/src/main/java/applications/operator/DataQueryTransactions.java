@@ -30,7 +30,7 @@ public class DataQueryTransactions extends ParticipantTransaction {
         Map<String, byte[]> trans = new HashMap<>();
         trans.put("data", file.getData().serialize().getBytes(StandardCharsets.UTF_8));
         trans.put("nonces", condensedNonces.serialize().getBytes(StandardCharsets.UTF_8));
-        repeat(contract.createTransaction("Add").setTransient(trans), new String[]{
+        repeat(contract, "Add", trans, new String[]{
                 id,
                 String.valueOf(file.getNonces().size()),
                 String.valueOf(index)
@@ -0,0 +1,101 @@
+package applications.operator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads measurements from a column of a CSV file that is mapped into memory. The offsets of the
+ * lines are indexed once when the source is created, after that a measurement is parsed straight
+ * from the mapped file without allocating. Only the integer part of a value is used.
+ * <p>
+ * Lines are either picked at random, or read in order and wrapping around at the end of the file.
+ */
+public class MappedCsvMeasurementSource implements MeasurementSource {
+
+    private final MappedByteBuffer buffer;
+    private final int[] lines;
+    private final int column;
+    private final boolean sequential;
+    private final AtomicInteger nextLine = new AtomicInteger();
+
+    /**
+     * @param file       the CSV file, with a header line.
+     * @param column     the index of the column holding the measurements.
+     * @param sequential true to read the lines in order, false to pick them at random.
+     * @throws IOException when the file cannot be read, or holds no measurements.
+     */
+    public MappedCsvMeasurementSource(Path file, int column, boolean sequential) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.lines = index(this.buffer);
+        this.column = column;
+        this.sequential = sequential;
+        if (this.lines.length == 0) throw new IOException("No measurements in " + file);
+    }
+
+    @Override
+    public long next() {
+        int line = this.sequential
+                ? Math.floorMod(this.nextLine.getAndIncrement(), this.lines.length)
+                : ThreadLocalRandom.current().nextInt(this.lines.length);
+        return parse(this.lines[line]);
+    }
+
+    /**
+     * @return the number of measurements in the file.
+     */
+    public int size() {
+        return this.lines.length;
+    }
+
+    /**
+     * Finds the start of every non-empty line after the header.
+     */
+    private static int[] index(MappedByteBuffer buffer) {
+        int[] lines = new int[1024];
+        int count = 0;
+        int limit = buffer.limit();
+
+        int position = 0;
+        while (position < limit && buffer.get(position) != '\n') position++;
+        for (position++; position < limit; position++) {
+            byte first = buffer.get(position);
+            if (first != '\n' && first != '\r') {
+                if (count == lines.length) lines = Arrays.copyOf(lines, count * 2);
+                lines[count++] = position;
+            }
+            while (position < limit && buffer.get(position) != '\n') position++;
+        }
+        return Arrays.copyOf(lines, count);
+    }
+
+    /**
+     * Parses the integer part of the value in the column of the line starting at the position.
+     */
+    private long parse(int position) {
+        int limit = this.buffer.limit();
+        for (int skipped = 0; skipped < this.column; position++) {
+            if (position == limit || this.buffer.get(position) == '\n')
+                throw new IllegalStateException("Line at " + position + " has no column " + this.column);
+            if (this.buffer.get(position) == ',') skipped++;
+        }
+
+        boolean negative = position < limit && this.buffer.get(position) == '-';
+        if (negative) position++;
+
+        long value = 0;
+        for (; position < limit; position++) {
+            byte c = this.buffer.get(position);
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+}
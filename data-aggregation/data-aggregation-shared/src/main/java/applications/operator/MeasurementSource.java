@@ -0,0 +1,13 @@
+package applications.operator;
+
+/**
+ * Supplies the measurements a participant contributes to aggregation processes.
+ * Implementations are thread safe.
+ */
+public interface MeasurementSource {
+
+    /**
+     * @return the next measurement.
+     */
+    long next();
+}
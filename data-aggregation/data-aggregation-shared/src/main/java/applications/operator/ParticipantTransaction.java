@@ -1,35 +1,45 @@
 package applications.operator;
 
 import datatypes.aggregationprocess.AggregationProcess;
+import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractException;
 
 import java.io.IOException;
-import java.util.Random;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.TimeoutException;
 
 public class ParticipantTransaction {
     private static final Scanner scan = new Scanner(System.in);
 
+    // Finalize is submitted by every participant, once one of them succeeded the rest is redundant,
+    // so it is idempotent. The other transactions could be applied twice when tried again after a
+    // timeout, the policy only retries them after a conflict.
+    private static final RetryPolicy retryPolicy = new RetryPolicy(200, 10_000, 10)
+            .setBudget("Finalize", 3)
+            .setIdempotent("Finalize");
+
     /**
-     * When submitting a transaction that will be automated, this class is used to manage rejection from
-     * collision, by repeating the transaction a number of times.
+     * When submitting a transaction that will be automated, this method is used to manage rejection
+     * from collision, by submitting the transaction again as decided by the retry policy.
      *
-     * @param transaction the repeated transaction.
-     * @param args        the arguments of the transaction.
+     * @param contract      the contract.
+     * @param name          the name of the transaction.
+     * @param transientData the transient data, or null.
+     * @param args          the arguments of the transaction.
      * @return the response of the transaction.
-     * @throws InterruptedException when the thread is interrupted when sleep is done.
+     * @throws InterruptedException when the thread is interrupted while waiting between tries.
      */
-    public static byte[] repeat(org.hyperledger.fabric.gateway.Transaction transaction, String[] args) throws InterruptedException {
-        for (int i = 0; i < 10; i++) {
-            try {
-                return transaction.submit(args);
-            } catch (ContractException | TimeoutException | InterruptedException e) {
-                System.out.println("Failed to commit transaction, trying again..." + i);
-                Thread.sleep(new Random().nextInt(10) * 200 + i * 1000);
-            }
+    public static byte[] repeat(Contract contract, String name, Map<String, byte[]> transientData, String[] args) throws InterruptedException {
+        try {
+            return retryPolicy.submit(contract, name, transientData, args);
+        } catch (ContractException | TimeoutException e) {
+            throw new RuntimeException("Failed to commit transaction " + name, e);
         }
-        throw new RuntimeException("Failed to commit transaction");
+    }
+
+    public static RetryPolicy getRetryPolicy() {
+        return retryPolicy;
     }
 
     /**
@@ -0,0 +1,301 @@
+package applications.operator;
+
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.exception.TransactionEventException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Submits transactions and retries them when they failed for a reason that may not happen again,
+ * such as a read conflict with a concurrent transaction of another participant. Failures that
+ * will happen again, such as an error returned by the chaincode, are not retried.
+ * <p>
+ * Every try is a new transaction with a new transaction id, so a try that timed out or whose
+ * rejection is not understood may still have been committed. Those are only retried for the
+ * transactions that are set to be idempotent, other transactions such as Add and AddShard would
+ * be counted twice.
+ * <p>
+ * Between tries the policy waits a random time up to a bound that doubles on every try, so
+ * participants that conflicted spread out instead of conflicting again. The number of tries can
+ * be set per transaction name, and the outcome of every try is counted per transaction name.
+ */
+public class RetryPolicy {
+
+    /**
+     * Why a try failed.
+     */
+    public enum Failure {
+        /**
+         * The transaction read a key that was changed before it committed, MVCC_READ_CONFLICT or
+         * PHANTOM_READ_CONFLICT. It did not change the ledger.
+         */
+        CONFLICT(true, false),
+        /**
+         * The commit failed for a reason that is not known, it may have been committed.
+         */
+        REJECTED(true, true),
+        /**
+         * No commit event was received in time, it may still be committed.
+         */
+        TIMEOUT(true, true),
+        /**
+         * The transaction was committed as invalid for a reason other than a conflict.
+         */
+        INVALID(false, false),
+        /**
+         * The transaction was not endorsed, e.g. because the chaincode returned an error.
+         */
+        ENDORSEMENT(false, false);
+
+        private final boolean transientFailure;
+        private final boolean mayHaveCommitted;
+
+        Failure(boolean transientFailure, boolean mayHaveCommitted) {
+            this.transientFailure = transientFailure;
+            this.mayHaveCommitted = mayHaveCommitted;
+        }
+
+        /**
+         * @param idempotent whether committing the transaction twice has the same effect as once.
+         * @return true when trying the transaction again may succeed and cannot apply it twice.
+         */
+        public boolean isRetryable(boolean idempotent) {
+            return transientFailure && (idempotent || !mayHaveCommitted);
+        }
+    }
+
+    private static final Pattern VALIDATION_CODE = Pattern.compile("with validation code (\\w+)");
+    private static final Pattern STATUS = Pattern.compile("with status (\\d+)");
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets = new ConcurrentHashMap<>();
+    private final Set<String> idempotent = ConcurrentHashMap.newKeySet();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseDelayMillis the bound of the wait after the first try.
+     * @param maxDelayMillis  the largest bound of a wait.
+     * @param defaultBudget   the number of tries of a transaction without a budget of its own.
+     */
+    public RetryPolicy(long baseDelayMillis, long maxDelayMillis, int defaultBudget) {
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.defaultBudget = defaultBudget;
+    }
+
+    /**
+     * Sets the number of tries for the transactions with the given name.
+     *
+     * @param name   the name of the transaction.
+     * @param budget the number of tries.
+     * @return the policy.
+     */
+    public RetryPolicy setBudget(String name, int budget) {
+        this.budgets.put(name, budget);
+        return this;
+    }
+
+    /**
+     * Marks the transactions with the given name as idempotent, so they are also retried after a
+     * timeout or a rejection whose reason is not known.
+     *
+     * @param name the name of the transaction.
+     * @return the policy.
+     */
+    public RetryPolicy setIdempotent(String name) {
+        this.idempotent.add(name);
+        return this;
+    }
+
+    /**
+     * Submits a transaction, trying again while it fails for a retryable reason and the budget
+     * for its name is not used up. Every try is a new transaction with a new transaction id. Read
+     * conflicts are only recognized when the gateway is built with {@link #commitHandler()}.
+     *
+     * @param contract      the contract.
+     * @param name          the name of the transaction.
+     * @param transientData the transient data, or null.
+     * @param args          the arguments of the transaction.
+     * @return the response of the transaction.
+     * @throws ContractException    when the last try failed in the contract.
+     * @throws TimeoutException     when the last try timed out.
+     * @throws InterruptedException when the thread is interrupted while waiting between tries.
+     */
+    public byte[] submit(Contract contract, String name, Map<String, byte[]> transientData, String... args)
+            throws ContractException, TimeoutException, InterruptedException {
+        Counters count = getCounters(name);
+        int budget = this.budgets.getOrDefault(name, this.defaultBudget);
+        boolean idempotent = this.idempotent.contains(name);
+
+        for (int attempt = 1; ; attempt++) {
+            Transaction transaction = contract.createTransaction(name);
+            if (transientData != null) transaction.setTransient(transientData);
+
+            count.attempts.incrementAndGet();
+            try {
+                byte[] response = transaction.submit(args);
+                count.successes.incrementAndGet();
+                return response;
+            } catch (ContractException | TimeoutException e) {
+                Failure failure = classify(e);
+                count.get(failure).incrementAndGet();
+                if (!failure.isRetryable(idempotent) || attempt >= budget) {
+                    count.failures.incrementAndGet();
+                    throw e;
+                }
+                System.out.println("Failed to commit " + name + " (" + failure + "), trying again..." + attempt);
+                Thread.sleep(delay(attempt));
+            }
+        }
+    }
+
+    /**
+     * The commit handler to build the gateway with. It reports the validation code of a rejected
+     * commit, so a read conflict can be told apart from other invalid transactions. The gateway
+     * sets the commit handler of all its transactions, it cannot be set per transaction.
+     *
+     * @return the factory of the commit handlers.
+     */
+    public static CommitHandlerFactory commitHandler() {
+        return ValidationCodeCommitHandler.FACTORY;
+    }
+
+    /**
+     * Determines why a try failed.
+     *
+     * @param e the exception thrown by the submit.
+     * @return the failure.
+     */
+    public static Failure classify(Exception e) {
+        if (e instanceof TimeoutException) return Failure.TIMEOUT;
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransactionEventException) {
+                TransactionEventException eventException = (TransactionEventException) cause;
+                if (eventException.getTransactionEvent() == null) return Failure.REJECTED;
+                return classify(eventException.getTransactionEvent().getValidationCode());
+            }
+            if (cause instanceof TimeoutException) return Failure.TIMEOUT;
+        }
+
+        // the gateway only reports that the commit was rejected, the ValidationCodeCommitHandler
+        // adds the validation code to the message when it saw the commit event
+        String message = String.valueOf(e.getMessage());
+        Matcher code = VALIDATION_CODE.matcher(message);
+        if (code.find()) {
+            String name = code.group(1);
+            if (name.equals(TxValidationCode.MVCC_READ_CONFLICT.name()) || name.equals(TxValidationCode.PHANTOM_READ_CONFLICT.name()))
+                return Failure.CONFLICT;
+            return Failure.INVALID;
+        }
+        if (message.contains(TxValidationCode.MVCC_READ_CONFLICT.name()) || message.contains(TxValidationCode.PHANTOM_READ_CONFLICT.name()))
+            return Failure.CONFLICT;
+        Matcher status = STATUS.matcher(message);
+        if (status.find()) return classify(Integer.parseInt(status.group(1)));
+        if (message.toLowerCase().contains("commit")) return Failure.REJECTED;
+        return Failure.ENDORSEMENT;
+    }
+
+    private static Failure classify(int validationCode) {
+        if (validationCode == TxValidationCode.MVCC_READ_CONFLICT_VALUE || validationCode == TxValidationCode.PHANTOM_READ_CONFLICT_VALUE)
+            return Failure.CONFLICT;
+        return Failure.INVALID;
+    }
+
+    /**
+     * @param attempt the number of the try that failed, starting at 1.
+     * @return a random wait up to the bound for the try.
+     */
+    long delay(int attempt) {
+        long bound = this.baseDelayMillis << Math.min(attempt - 1, 30);
+        if (bound <= 0 || bound > this.maxDelayMillis) bound = this.maxDelayMillis;
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * @param name the name of the transaction.
+     * @return the counters of the transactions with the given name.
+     */
+    public Counters getCounters(String name) {
+        return this.counters.computeIfAbsent(name, n -> new Counters());
+    }
+
+    public Map<String, Counters> getCounters() {
+        return this.counters;
+    }
+
+    /**
+     * The outcome of the tries of the transactions with one name.
+     */
+    public static class Counters {
+
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong[] byFailure = new AtomicLong[Failure.values().length];
+
+        Counters() {
+            for (int i = 0; i < this.byFailure.length; i++)
+                this.byFailure[i] = new AtomicLong();
+        }
+
+        private AtomicLong get(Failure failure) {
+            return this.byFailure[failure.ordinal()];
+        }
+
+        public long getAttempts() {
+            return attempts.get();
+        }
+
+        public long getSuccesses() {
+            return successes.get();
+        }
+
+        /**
+         * @return the number of transactions that failed after their last try.
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * @param failure why a try failed.
+         * @return the number of tries that failed for the reason.
+         */
+        public long getCount(Failure failure) {
+            return get(failure).get();
+        }
+
+        /**
+         * @return the share of the tries that failed with a conflict.
+         */
+        public double getConflictRate() {
+            long attempts = getAttempts();
+            return attempts == 0 ? 0 : (double) getCount(Failure.CONFLICT) / attempts;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder()
+                    .append("attempts: ").append(getAttempts())
+                    .append(", successes: ").append(getSuccesses())
+                    .append(", failures: ").append(getFailures());
+            for (Failure failure : Failure.values())
+                builder.append(", ").append(failure.name().toLowerCase()).append(": ").append(getCount(failure));
+            return builder.append(String.format(", conflict rate: %.3f", getConflictRate())).toString();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package applications.operator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Supplies the latest reading of a continuous feed, such as a sensor. Readings are pushed with
+ * update, or read from a stream of CSV lines on a background thread. next returns the latest
+ * reading, and waits for the first one when there is none yet. The wait ends with an
+ * IllegalStateException when the feed ends without a reading, or after the timeout set with the
+ * measurement.timeout system property, in milliseconds.
+ */
+public class StreamingMeasurementSource implements MeasurementSource {
+
+    private static final Logger LOG = Logger.getLogger(StreamingMeasurementSource.class.getName());
+
+    private static final long DEFAULT_TIMEOUT = 30_000;
+
+    private final long timeout = Long.getLong("measurement.timeout", DEFAULT_TIMEOUT);
+
+    private final Object lock = new Object();
+    private volatile boolean hasReading;
+    private volatile boolean ended;
+    private volatile long latest;
+
+    /**
+     * Records a new reading.
+     *
+     * @param reading the reading.
+     */
+    public void update(long reading) {
+        this.latest = reading;
+        if (!this.hasReading) {
+            synchronized (this.lock) {
+                this.hasReading = true;
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public long next() {
+        if (!this.hasReading) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+            synchronized (this.lock) {
+                while (!this.hasReading) {
+                    if (this.ended) throw new IllegalStateException("The measurement feed ended without a reading");
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) throw new IllegalStateException("No reading within " + this.timeout + " ms");
+                    try {
+                        this.lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for the first reading", e);
+                    }
+                }
+            }
+        }
+        return this.latest;
+    }
+
+    /**
+     * Starts a daemon thread that reads CSV lines from the feed and records the integer part of
+     * the value in the column of every line as a new reading, until the feed ends.
+     *
+     * @param feed   the feed.
+     * @param column the index of the column holding the readings.
+     * @return this source.
+     */
+    public StreamingMeasurementSource follow(InputStream feed, int column) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(feed, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    String[] values = line.split(",");
+                    if (values.length <= column) continue;
+                    String value = values[column].trim();
+                    int point = value.indexOf('.');
+                    try {
+                        update(Long.parseLong(point == -1 ? value : value.substring(0, point)));
+                    } catch (NumberFormatException e) {
+                        LOG.fine(() -> "Skipped line without a reading: " + value);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Could not read the measurement feed", e);
+            } finally {
+                synchronized (this.lock) {
+                    this.ended = true;
+                    this.lock.notifyAll();
+                }
+            }
+        }, "measurement-feed");
+        reader.setDaemon(true);
+        reader.start();
+        return this;
+    }
+}
@@ -0,0 +1,88 @@
+package applications.operator;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.protos.peer.TransactionPackage.TxValidationCode;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Waits for the commit of a transaction like the default commit handler of the gateway, and adds
+ * the validation code of the transaction to the exception when its commit is rejected. The
+ * gateway only reports "Transaction commit was rejected by peer ...", which does not tell a read
+ * conflict apart from other invalid transactions.
+ */
+final class ValidationCodeCommitHandler implements CommitHandler {
+
+    static final CommitHandlerFactory FACTORY = (transactionId, network) -> new ValidationCodeCommitHandler(
+            DefaultCommitHandlers.MSPID_SCOPE_ALLFORTX.create(transactionId, network), transactionId, network);
+
+    // the rejection and the block with the validation code arrive with the same block event
+    private static final long CODE_WAIT_MILLIS = 1000;
+
+    private final CommitHandler delegate;
+    private final String transactionId;
+    private final Network network;
+    private final CompletableFuture<Integer> validationCode = new CompletableFuture<>();
+    private Consumer<BlockEvent> listener;
+
+    private ValidationCodeCommitHandler(CommitHandler delegate, String transactionId, Network network) {
+        this.delegate = delegate;
+        this.transactionId = transactionId;
+        this.network = network;
+    }
+
+    @Override
+    public synchronized void startListening() {
+        this.listener = this.network.addBlockListener(this::onBlock);
+        this.delegate.startListening();
+    }
+
+    @Override
+    public void waitForEvents(long timeout, TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException {
+        try {
+            this.delegate.waitForEvents(timeout, timeUnit);
+        } catch (ContractException e) {
+            Integer code = awaitValidationCode();
+            if (code == null) throw e;
+            TxValidationCode name = TxValidationCode.forNumber(code);
+            throw new ContractException(e.getMessage() + " with validation code " + (name == null ? code : name.name()), e);
+        } finally {
+            removeListener();
+        }
+    }
+
+    @Override
+    public void cancelListening() {
+        this.delegate.cancelListening();
+        removeListener();
+    }
+
+    private void onBlock(BlockEvent block) {
+        for (BlockEvent.TransactionEvent transaction : block.getTransactionEvents())
+            if (this.transactionId.equals(transaction.getTransactionID()))
+                this.validationCode.complete((int) transaction.getValidationCode());
+    }
+
+    private Integer awaitValidationCode() throws InterruptedException {
+        try {
+            return this.validationCode.get(CODE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private synchronized void removeListener() {
+        if (this.listener == null) return;
+        this.network.removeBlockListener(this.listener);
+        this.listener = null;
+    }
+}
@@ -62,6 +62,16 @@ public class AggregationProcess {
         return aggregationProcess;
     }
 
+    /**
+     * Reads only the state from the JSON of an AggregationProcess, without fetching its IPFS file.
+     *
+     * @param data the JSON.
+     * @return the state of the aggregation process.
+     */
+    public static AggregationProcessState deserializeState(byte[] data) {
+        return new JSONObject(new String(data, UTF_8)).getEnum(AggregationProcessState.class, "state");
+    }
+
     /**
      * Serializes the AggregationProcess object into JSON.
      *
@@ -92,6 +102,10 @@ public class AggregationProcess {
         return ipfsFile;
     }
 
+    public int getNrExpectedParticipants() {
+        return nrExpectedParticipants;
+    }
+
     public boolean isExpectedParticipants() {
         return this.nrExpectedParticipants <= this.ipfsFile.getNonces().size();
     }
@@ -1,8 +1,18 @@
 package datatypes.values;
 
+import java.math.BigInteger;
+import java.util.Base64;
+
 public class EncryptedData {
 
+    /**
+     * Marks a ciphertext serialized as the Base64 encoding of its two's-complement bytes, rather
+     * than as a decimal string. Decimal strings never start with it, so both can be read.
+     */
+    private static final String BINARY_PREFIX = "~";
+
     private String data;
+    private BigInteger ciphertext;
     private String exponent;
 
     public EncryptedData(String data, String exponent) {
@@ -10,13 +20,29 @@ public class EncryptedData {
         this.exponent = exponent;
     }
 
+    public EncryptedData(BigInteger ciphertext, int exponent) {
+        this.ciphertext = ciphertext;
+        this.exponent = String.valueOf(exponent);
+    }
+
     /**
-     * Serializes the EncryptedData object into a String.
+     * @return a copy of the EncryptedData object.
+     */
+    public EncryptedData copy() {
+        EncryptedData copy = new EncryptedData(this.data, this.exponent);
+        copy.ciphertext = this.ciphertext;
+        return copy;
+    }
+
+    /**
+     * Serializes the EncryptedData object into a String. The ciphertext is written in binary form,
+     * Base64 encoded, which is smaller and cheaper to parse than its decimal form.
      *
      * @return the serialized EncryptedData object.
      */
     public String serialize() {
-        return this.data + ":" + this.exponent;
+        if (isEmpty()) return "null:" + this.exponent;
+        return BINARY_PREFIX + Base64.getEncoder().encodeToString(getCiphertext().toByteArray()) + ":" + this.exponent;
     }
 
     /**
@@ -30,22 +56,48 @@ public class EncryptedData {
     }
 
     /**
-     * The EncryptedData object is deserialized.
+     * The EncryptedData object is deserialized. Both the binary and the older decimal form of the
+     * ciphertext are accepted.
      *
      * @param encData the serialized EncryptedData object.
      * @return the deserialized EncryptedData object.
      */
     public static EncryptedData deserialize(String encData) {
         String[] parts = encData.split(":", 2);
+        if (parts[0].startsWith(BINARY_PREFIX)) {
+            EncryptedData data = new EncryptedData((String) null, parts[1]);
+            data.ciphertext = new BigInteger(Base64.getDecoder().decode(parts[0].substring(BINARY_PREFIX.length())));
+            return data;
+        }
         return new EncryptedData(parts[0], parts[1]);
     }
 
+    /**
+     * @return true when no data has been set yet.
+     */
+    public boolean isEmpty() {
+        return this.ciphertext == null && (this.data == null || this.data.equals("null"));
+    }
+
+    /**
+     * @return the ciphertext, or null when no data has been set yet.
+     */
+    public BigInteger getCiphertext() {
+        if (this.ciphertext == null && !isEmpty()) this.ciphertext = new BigInteger(this.data);
+        return this.ciphertext;
+    }
+
+    /**
+     * @return the ciphertext as a decimal string, "null" or null when no data has been set yet.
+     */
     public String getData() {
+        if (this.data == null && this.ciphertext != null) this.data = this.ciphertext.toString();
         return data;
     }
 
     public EncryptedData setData(String data) {
         this.data = data;
+        this.ciphertext = null;
         return this;
     }
 
@@ -60,6 +112,6 @@ public class EncryptedData {
 
     @Override
     public String toString() {
-        return "data: " + data + ", exponent: " + exponent;
+        return "data: " + getData() + ", exponent: " + exponent;
     }
 }
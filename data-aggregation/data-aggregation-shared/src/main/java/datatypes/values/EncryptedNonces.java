@@ -9,6 +9,7 @@ import org.json.JSONObject;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
 
 public class EncryptedNonces {
 
@@ -22,7 +23,8 @@ public class EncryptedNonces {
 
     /**
      * Makes the list of nonces encrypted with kp and adds them together, and re-encrypts the sum
-     * with the postQuantumPk.
+     * with the postQuantumPk. The nonces are decrypted in parallel on the common fork-join pool
+     * and summed pairwise as the tasks complete.
      *
      * @param keystore      keystore that contains the NTRU keys.
      * @param encNonces     the encrypted list of nonces.
@@ -31,12 +33,62 @@ public class EncryptedNonces {
      * @throws InvalidCipherTextException thrown by the NTRUEncrypt method.
      */
     public static EncryptedNonce condenseNonces(OperatorKeyStore keystore, EncryptedNonces encNonces, String postQuantumPk) throws InvalidCipherTextException {
-        BigInteger summedNonce = new BigInteger("0");
-        for (EncryptedNonce encNonce : encNonces.getNonces())
-            summedNonce = summedNonce.add(new BigInteger(new String(keystore.getNtruEncryption().decrypt(encNonce.getNonce()))));
+        EncryptedNonce[] nonces = encNonces.getNonces();
+        BigInteger summedNonce;
+        try {
+            summedNonce = new DecryptAndSum(keystore.getNtruEncryption(), nonces, 0, nonces.length).invoke();
+        } catch (RuntimeException e) {
+            // the task may rethrow a copy of the exception, so look for the cause along the chain
+            for (Throwable cause = e; cause != null; cause = cause.getCause())
+                if (cause instanceof InvalidCipherTextException) throw (InvalidCipherTextException) cause;
+            throw e;
+        }
         return new EncryptedNonce(NTRUEncryption.encrypt(summedNonce.toString().getBytes(StandardCharsets.UTF_8), postQuantumPk));
     }
 
+    /**
+     * Decrypts the nonces in a range and sums them, splitting the range in two until it is small
+     * enough to decrypt on a single worker.
+     */
+    private static class DecryptAndSum extends RecursiveTask<BigInteger> {
+
+        private static final int THRESHOLD = 16;
+
+        private final NTRUEncryption ntru;
+        private final EncryptedNonce[] nonces;
+        private final int from;
+        private final int to;
+
+        DecryptAndSum(NTRUEncryption ntru, EncryptedNonce[] nonces, int from, int to) {
+            this.ntru = ntru;
+            this.nonces = nonces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from <= THRESHOLD) return decryptAndSum();
+
+            int middle = (from + to) >>> 1;
+            DecryptAndSum left = new DecryptAndSum(ntru, nonces, from, middle);
+            left.fork();
+            BigInteger right = new DecryptAndSum(ntru, nonces, middle, to).compute();
+            return left.join().add(right);
+        }
+
+        private BigInteger decryptAndSum() {
+            BigInteger sum = BigInteger.ZERO;
+            try {
+                for (int i = from; i < to; i++)
+                    sum = sum.add(new BigInteger(new String(ntru.decrypt(nonces[i].getNonce()), StandardCharsets.UTF_8)));
+            } catch (InvalidCipherTextException e) {
+                throw new IllegalStateException(e);
+            }
+            return sum;
+        }
+    }
+
     /**
      * Takes the nonces and extracts the nonces at place index in each two-dimensional array in the
      * ArrayList. Returns those as a list.
@@ -109,6 +161,13 @@ public class EncryptedNonces {
         return new EncryptedNonces(nonces);
     }
 
+    /**
+     * @return a copy of the EncryptedNonces object, sharing the nonces themselves.
+     */
+    public EncryptedNonces copy() {
+        return new EncryptedNonces(this.nonces.clone());
+    }
+
     public EncryptedNonce[] getNonces() {
         return nonces;
     }
@@ -0,0 +1,66 @@
+package datatypes.values;
+
+import io.ipfs.api.IPFS;
+import io.ipfs.api.NamedStreamable;
+import io.ipfs.multiaddr.MultiAddress;
+import io.ipfs.multihash.Multihash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores files on an IPFS daemon through its HTTP API.
+ * <p>
+ * Requests run on a fixed pool of threads, which also bounds the number of connections open to the
+ * daemon. The connections are kept alive and reused by the JDK between requests.
+ */
+public class HttpIpfsStore implements IpfsStore {
+
+    private final IPFS ipfs;
+    private final ExecutorService executor;
+
+    /**
+     * @param address              the multiaddress of the HTTP API of the daemon, e.g. /ip4/127.0.0.1/tcp/5001.
+     * @param connectTimeoutMillis the timeout for connecting to the daemon.
+     * @param readTimeoutMillis    the timeout for reading a response of the daemon.
+     * @param nrConnections        the maximum number of requests to the daemon at the same time.
+     */
+    public HttpIpfsStore(String address, int connectTimeoutMillis, int readTimeoutMillis, int nrConnections) {
+        MultiAddress multiAddress = new MultiAddress(address);
+        this.ipfs = new IPFS(multiAddress.getHost(), multiAddress.getTCPPort(), "/api/v0/",
+                connectTimeoutMillis, readTimeoutMillis, false);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(nrConnections, runnable -> {
+            Thread thread = new Thread(runnable, "ipfs-http-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Multihash> add(byte[] file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.ipfs.add(new NamedStreamable.ByteArrayWrapper(file)).get(0).hash;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> cat(Multihash hash) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.ipfs.cat(hash);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, this.executor);
+    }
+}
@@ -0,0 +1,208 @@
+package datatypes.values;
+
+import io.ipfs.multihash.Multihash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Content addressed cache of the files on IPFS. Content on IPFS never changes for a hash, so
+ * entries never go stale and only have to be bounded.
+ * <p>
+ * The raw bytes of files are kept in memory up to a total number of bytes. When a directory is
+ * given, files are also written there and read back memory-mapped once they are evicted from
+ * memory. Parsed files are kept as well, up to a number of files. As parsed files are mutable,
+ * callers always get a copy of the cached file.
+ */
+public class IPFSCache {
+
+    private final long maxBytes;
+    private final Path directory;
+    private long bytes;
+
+    private final LinkedHashMap<Multihash, byte[]> files = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Multihash, IPFSFile> parsed;
+    private final Map<Multihash, CompletableFuture<IPFSFile>> loading = new HashMap<>();
+
+    /**
+     * @param maxBytes       the maximum total size of the raw files kept in memory.
+     * @param maxParsedFiles the maximum number of parsed files kept in memory.
+     * @param directory      the directory files are written to, or null to keep files in memory only.
+     */
+    public IPFSCache(long maxBytes, int maxParsedFiles, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.parsed = new LinkedHashMap<Multihash, IPFSFile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Multihash, IPFSFile> eldest) {
+                return size() > maxParsedFiles;
+            }
+        };
+    }
+
+    /**
+     * Returns the raw bytes of a file, from memory or else from the directory.
+     *
+     * @param hash the hash of the file.
+     * @return the file, or null if it is not cached.
+     */
+    public synchronized byte[] get(Multihash hash) {
+        byte[] file = this.files.get(hash);
+        if (file == null && this.directory != null) {
+            file = readFromDisk(hash);
+            if (file != null) putInMemory(hash, file);
+        }
+        return file;
+    }
+
+    /**
+     * Adds the raw bytes of a file to the cache.
+     *
+     * @param hash the hash of the file.
+     * @param file the file.
+     */
+    public synchronized void put(Multihash hash, byte[] file) {
+        if (this.files.containsKey(hash)) return;
+        if (this.directory != null) writeToDisk(hash, file);
+        putInMemory(hash, file);
+    }
+
+    /**
+     * Returns a copy of the parsed file, parsing and caching it when it is not cached yet. The copy
+     * knows its hash, so it is not added to IPFS again until it changes. Callers asking for a hash
+     * that is being loaded wait for that load, so each file is fetched and parsed once.
+     *
+     * @param hash   the hash of the file.
+     * @param type   the type of the file.
+     * @param loader loads and parses the file when it is not cached.
+     * @param <T>    the type of the file.
+     * @return the copy of the parsed file.
+     * @throws IOException thrown by the loader.
+     */
+    public <T extends IPFSFile> T getParsed(Multihash hash, Class<T> type, Loader<T> loader) throws IOException {
+        IPFSFile file;
+        CompletableFuture<IPFSFile> pending = null;
+        boolean loads = false;
+        synchronized (this) {
+            file = this.parsed.get(hash);
+            if (!type.isInstance(file)) {
+                pending = this.loading.get(hash);
+                if (pending == null) {
+                    pending = new CompletableFuture<>();
+                    this.loading.put(hash, pending);
+                    loads = true;
+                }
+            }
+        }
+        if (loads) file = load(hash, loader, pending);
+        else if (pending != null) file = await(pending);
+        // only when another caller loaded the hash as a different type
+        if (!type.isInstance(file)) {
+            file = loader.load(hash);
+            putParsed(hash, file);
+        }
+        IPFSFile copy = file.copy();
+        copy.setHash(hash);
+        return type.cast(copy);
+    }
+
+    /**
+     * Adds a parsed file to the cache. The file is copied, so later changes to it are not cached.
+     *
+     * @param hash the hash of the file.
+     * @param file the parsed file.
+     */
+    public void putParsed(Multihash hash, IPFSFile file) {
+        IPFSFile copy = file.copy();
+        synchronized (this) {
+            this.parsed.put(hash, copy);
+        }
+    }
+
+    private IPFSFile load(Multihash hash, Loader<?> loader, CompletableFuture<IPFSFile> pending) throws IOException {
+        try {
+            IPFSFile file = loader.load(hash);
+            putParsed(hash, file);
+            pending.complete(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                this.loading.remove(hash);
+            }
+        }
+    }
+
+    private static IPFSFile await(CompletableFuture<IPFSFile> pending) throws IOException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) throw new IOException(e.getCause().getMessage(), e.getCause());
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private void putInMemory(Multihash hash, byte[] file) {
+        if (file.length > this.maxBytes) return;
+        this.files.put(hash, file);
+        this.bytes += file.length;
+
+        Iterator<byte[]> eldest = this.files.values().iterator();
+        while (this.bytes > this.maxBytes) {
+            this.bytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private byte[] readFromDisk(Multihash hash) {
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(hash.toBase58()), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] file = new byte[buffer.remaining()];
+            buffer.get(file);
+            return file;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeToDisk(Multihash hash, byte[] file) {
+        Path path = this.directory.resolve(hash.toBase58());
+        if (Files.exists(path)) return;
+        try {
+            Files.createDirectories(this.directory);
+            // written under another name first, so a file is never read half written
+            Path tmp = Files.createTempFile(this.directory, hash.toBase58(), ".tmp");
+            Files.write(tmp, file);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads and parses a file that is not cached.
+     *
+     * @param <T> the type of the file.
+     */
+    public interface Loader<T extends IPFSFile> {
+        T load(Multihash hash) throws IOException;
+    }
+}
@@ -2,70 +2,147 @@ package datatypes.values;
 
 import applications.asker.DataQueryIPFSFile;
 import applications.operator.AggregationIPFSFile;
-import io.ipfs.api.IPFS;
-import io.ipfs.api.MerkleNode;
-import io.ipfs.api.NamedStreamable;
 import io.ipfs.multihash.Multihash;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * The files of the data aggregation processes, stored in an IpfsStore with a cache in front.
+ * <p>
+ * The shared instance is configured with system properties:
+ * <ul>
+ *     <li>ipfs.store, "http" for an IPFS daemon or "memory" to keep files in this process, default http.</li>
+ *     <li>ipfs.address, the multiaddress of the HTTP API of the daemon.</li>
+ *     <li>ipfs.connect.timeout and ipfs.read.timeout, in milliseconds.</li>
+ *     <li>ipfs.connections, the maximum number of requests to the daemon at the same time.</li>
+ *     <li>ipfs.cache.dir, a directory to also cache files in.</li>
+ * </ul>
+ */
 public class IPFSConnection {
 
-    private static IPFSConnection ipfsConnection = null;
+    private static final long CACHE_BYTES = 64L * 1024 * 1024;
+    private static final int CACHE_PARSED_FILES = 64;
 
-    private final IPFS ipfs;
+    private static final String DEFAULT_ADDRESS = "/ip4/192.168.0.106/tcp/5001";
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+    private static final int DEFAULT_READ_TIMEOUT = 60_000;
+    private static final int DEFAULT_CONNECTIONS = 8;
 
-    private IPFSConnection() {
-        this.ipfs = new IPFS("/ip4/192.168.0.106/tcp/5001");
-        try {
-            ipfs.refs.local();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static volatile IPFSConnection ipfsConnection = null;
+
+    private final IpfsStore store;
+    private final IPFSCache cache;
+
+    public IPFSConnection(IpfsStore store, IPFSCache cache) {
+        this.store = store;
+        this.cache = cache;
     }
 
-    public IPFS getIpfs() {
-        return ipfs;
+    public IpfsStore getStore() {
+        return store;
     }
 
     /**
-     * Adds a new file to be hosted on IPFS.
+     * Adds a new file to be hosted on IPFS. The file is cached, so reading it back does not go to
+     * IPFS. When the hash computed locally is already in the cache, the file was added or read
+     * before with the same content and is not added again.
      *
      * @param serFile the IPFS file.
      * @return the hash of the new file.
      */
     public Multihash addFile(IPFSFile serFile) throws IOException {
-        NamedStreamable.ByteArrayWrapper file = new NamedStreamable.ByteArrayWrapper(serFile.serialize().getBytes(StandardCharsets.UTF_8));
-        MerkleNode addResult = ipfs.add(file).get(0);
-        return addResult.hash;
+        byte[] bytes = serFile.toBytes();
+        Multihash hash = IPFSHash.of(bytes);
+        if (hash == null || this.cache.get(hash) == null) {
+            hash = await(this.store.add(bytes));
+            this.cache.put(hash, bytes);
+        }
+        this.cache.putParsed(hash, serFile);
+        return hash;
     }
 
     /**
-     * Retrieves a file from IPFS using the hash.
+     * Retrieves a file from the cache, or from IPFS using the hash.
      *
      * @param hash the hash associated with the file.
      * @return the IPFS file.
      */
     public DataQueryIPFSFile getDataQueryIPFSFile(Multihash hash) throws IOException {
-        byte[] file = ipfs.cat(hash);
-        return DataQueryIPFSFile.deserialize(new String(file));
+        return this.cache.getParsed(hash, DataQueryIPFSFile.class, h -> DataQueryIPFSFile.fromBytes(cat(h)));
     }
 
     /**
-     * Retrieves a file from IPFS using the hash.
+     * Retrieves a file from the cache, or from IPFS using the hash.
      *
      * @param hash the hash associated with the file.
      * @return the IPFS file.
      */
     public AggregationIPFSFile getAggregationIPFSFile(Multihash hash) throws IOException {
-        byte[] file = ipfs.cat(hash);
-        return AggregationIPFSFile.deserialize(new String(file));
+        return this.cache.getParsed(hash, AggregationIPFSFile.class, h -> AggregationIPFSFile.fromBytes(cat(h)));
+    }
+
+    private byte[] cat(Multihash hash) throws IOException {
+        byte[] file = this.cache.get(hash);
+        if (file == null) {
+            file = await(this.store.cat(hash));
+            this.cache.put(hash, file);
+        }
+        return file;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for IPFS");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
     }
 
     public static IPFSConnection getInstance() {
-        if (IPFSConnection.ipfsConnection == null) ipfsConnection = new IPFSConnection();
-        return ipfsConnection;
+        IPFSConnection connection = ipfsConnection;
+        if (connection == null) {
+            synchronized (IPFSConnection.class) {
+                if (ipfsConnection == null) ipfsConnection = new IPFSConnection(createStore(), createCache());
+                connection = ipfsConnection;
+            }
+        }
+        return connection;
     }
 
+    /**
+     * Replaces the shared instance, e.g. with one using an InMemoryIpfsStore for tests and
+     * benchmarks. Should be called before any file is read or written.
+     *
+     * @param connection the new shared instance.
+     */
+    public static void setInstance(IPFSConnection connection) {
+        synchronized (IPFSConnection.class) {
+            ipfsConnection = connection;
+        }
+    }
+
+    private static IpfsStore createStore() {
+        if ("memory".equals(System.getProperty("ipfs.store"))) return new InMemoryIpfsStore();
+        return new HttpIpfsStore(
+                System.getProperty("ipfs.address", DEFAULT_ADDRESS),
+                Integer.getInteger("ipfs.connect.timeout", DEFAULT_CONNECT_TIMEOUT),
+                Integer.getInteger("ipfs.read.timeout", DEFAULT_READ_TIMEOUT),
+                Integer.getInteger("ipfs.connections", DEFAULT_CONNECTIONS));
+    }
+
+    private static IPFSCache createCache() {
+        String cacheDir = System.getProperty("ipfs.cache.dir");
+        return new IPFSCache(CACHE_BYTES, CACHE_PARSED_FILES, cacheDir == null ? null : Paths.get(cacheDir));
+    }
 }
@@ -5,11 +5,15 @@ import io.ipfs.multihash.Multihash;
 import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 
 public class IPFSFile {
 
     private Multihash hash;
+    private boolean dirty = true;
     private EncryptedData data;
     private final String paillierKey;
     private final NTRUEncryptionPublicKeyParameters postqKey;
@@ -25,13 +29,47 @@ public class IPFSFile {
         this.data = data;
     }
 
+    /**
+     * Returns the hash of the file. The file is only added to IPFS when its content changed since
+     * it was last added to or read from IPFS.
+     *
+     * @return the hash of the file.
+     * @throws IOException when the file cannot be added to IPFS.
+     */
     public Multihash getHash() throws IOException {
-        createHash();
+        if (this.dirty) createHash();
         return hash;
     }
 
     public void createHash() throws IOException {
         this.hash = IPFSConnection.getInstance().addFile(this);
+        this.dirty = false;
+    }
+
+    /**
+     * Marks the content of the file as changed, so the next call to getHash adds it to IPFS.
+     */
+    protected void setDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * Records that the content of the file is stored on IPFS under the given hash.
+     *
+     * @param hash the hash of the file.
+     */
+    void setHash(Multihash hash) {
+        this.hash = hash;
+        this.dirty = false;
+    }
+
+    /**
+     * Copies the IPFSFile object. The keys are shared, everything that can be changed is copied.
+     *
+     * @return the copy.
+     */
+    public IPFSFile copy() {
+        return new IPFSFile(this.paillierKey, this.postqKey, this.data == null ? null : this.data.copy());
     }
 
     /**
@@ -57,6 +95,52 @@ public class IPFSFile {
                 data.serialize();
     }
 
+    /**
+     * Serializes the IPFSFile object into the binary format.
+     *
+     * @return the serialized IPFSFile object.
+     */
+    public byte[] toBytes() {
+        return writeTo(IPFSFileFormat.writer(IPFSFileFormat.PLAIN)).toByteArray();
+    }
+
+    /**
+     * Writes the fields of the IPFSFile object, subclasses append their own fields.
+     *
+     * @param writer the writer of the file.
+     * @return the writer.
+     */
+    protected IPFSFileFormat.Writer writeTo(IPFSFileFormat.Writer writer) {
+        return writer.writeString(this.paillierKey)
+                .writeKey(this.postqKey)
+                .writeData(this.data);
+    }
+
+    /**
+     * Deserializes the IPFSFile object from the binary format, or from the text format used before.
+     *
+     * @param file the serialized IPFSFile.
+     * @return the IPFSFile.
+     * @throws IOException when the file is not valid.
+     */
+    public static IPFSFile fromBytes(byte[] file) throws IOException {
+        if (!IPFSFileFormat.isBinary(file)) return IPFSFile.deserialize(new String(file, UTF_8));
+        return IPFSFile.readFrom(IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN));
+    }
+
+    /**
+     * Reads the fields of an IPFSFile object, subclasses read their own fields after them.
+     *
+     * @param buffer the buffer positioned at the fields.
+     * @return the IPFSFile.
+     * @throws IOException when the file is not valid.
+     */
+    protected static IPFSFile readFrom(ByteBuffer buffer) throws IOException {
+        String paillierKey = IPFSFileFormat.readString(buffer);
+        NTRUEncryptionPublicKeyParameters postqKey = IPFSFileFormat.readKey(buffer);
+        return new IPFSFile(paillierKey, postqKey).setData(IPFSFileFormat.readData(buffer));
+    }
+
     public String getPaillierKey() {
         return paillierKey;
     }
@@ -71,6 +155,7 @@ public class IPFSFile {
 
     public IPFSFile setData(EncryptedData data) {
         this.data = data;
+        setDirty();
         return this;
     }
 }
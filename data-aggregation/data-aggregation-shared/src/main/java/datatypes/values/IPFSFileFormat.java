@@ -0,0 +1,262 @@
+package datatypes.values;
+
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionParameters;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary format of the files stored on IPFS. A file starts with a header of four magic bytes,
+ * a version byte and a byte naming the kind of file, followed by the fields of the file. Every
+ * variable length field is prefixed with its length as an int, where -1 marks a null value.
+ * <p>
+ * The older text format never starts with the magic bytes, so files in either format can be read.
+ */
+public final class IPFSFileFormat {
+
+    public static final byte VERSION = 1;
+
+    public static final byte PLAIN = 0;
+    public static final byte DATA_QUERY = 1;
+    public static final byte AGGREGATION = 2;
+
+    private static final byte[] MAGIC = {0, 'D', 'A', 'F'};
+
+    private IPFSFileFormat() {
+    }
+
+    /**
+     * Checks whether the file is in the binary format rather than the older text format.
+     *
+     * @param file the file.
+     * @return true if the file starts with the magic bytes.
+     */
+    public static boolean isBinary(byte[] file) {
+        if (file.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++)
+            if (file[i] != MAGIC[i]) return false;
+        return true;
+    }
+
+    /**
+     * Starts a new file with the header.
+     *
+     * @param kind the kind of file.
+     * @return the stream the fields of the file are written to.
+     */
+    public static Writer writer(byte kind) {
+        Writer writer = new Writer();
+        try {
+            writer.out.write(MAGIC);
+            writer.out.writeByte(VERSION);
+            writer.out.writeByte(kind);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer;
+    }
+
+    /**
+     * Checks the header of the file and returns a buffer positioned at its first field. The
+     * buffer wraps the file, nothing is copied.
+     *
+     * @param file the file.
+     * @param kind the expected kind of file.
+     * @return the buffer.
+     * @throws IOException when the header is not valid.
+     */
+    public static ByteBuffer reader(byte[] file, byte kind) throws IOException {
+        if (!isBinary(file)) throw new IOException("File is not in the binary format");
+        if (file.length < MAGIC.length + 2) throw new IOException("Truncated file");
+        ByteBuffer buffer = ByteBuffer.wrap(file);
+        buffer.position(MAGIC.length);
+        byte version = buffer.get();
+        if (version != VERSION) throw new IOException("Unsupported file version " + version);
+        byte actualKind = buffer.get();
+        if (actualKind != kind) throw new IOException("Expected file kind " + kind + " but was " + actualKind);
+        return buffer;
+    }
+
+    /**
+     * Reads a length prefixed field and advances the buffer past it.
+     *
+     * @param buffer the buffer.
+     * @return a buffer over the field, sharing the content of the file, or null for a null field.
+     * @throws IOException when the file is truncated.
+     */
+    public static ByteBuffer readField(ByteBuffer buffer) throws IOException {
+        try {
+            int length = buffer.getInt();
+            if (length == -1) return null;
+            if (length < 0 || length > buffer.remaining()) throw new IOException("Truncated file");
+
+            ByteBuffer field = buffer.slice();
+            field.limit(length);
+            buffer.position(buffer.position() + length);
+            return field;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated file", e);
+        }
+    }
+
+    public static int readInt(ByteBuffer buffer) throws IOException {
+        try {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated file", e);
+        }
+    }
+
+    /**
+     * Reads the number of elements that follow. Every element takes at least four bytes, which
+     * bounds the count by the remaining bytes of the file.
+     *
+     * @param buffer the buffer.
+     * @return the number of elements.
+     * @throws IOException when the count does not fit in the file.
+     */
+    public static int readCount(ByteBuffer buffer) throws IOException {
+        int count = readInt(buffer);
+        if (count < 0 || count > buffer.remaining() / 4) throw new IOException("Invalid element count " + count);
+        return count;
+    }
+
+    public static byte[] readBytes(ByteBuffer buffer) throws IOException {
+        ByteBuffer field = readField(buffer);
+        if (field == null) return null;
+        byte[] bytes = new byte[field.remaining()];
+        field.get(bytes);
+        return bytes;
+    }
+
+    public static String readString(ByteBuffer buffer) throws IOException {
+        ByteBuffer field = readField(buffer);
+        if (field == null) return null;
+        return StandardCharsets.UTF_8.decode(field).toString();
+    }
+
+    public static EncryptedData readData(ByteBuffer buffer) throws IOException {
+        byte[] ciphertext = readBytes(buffer);
+        int exponent = readInt(buffer);
+        if (ciphertext == null) return new EncryptedData("null", "null");
+        return new EncryptedData(new BigInteger(ciphertext), exponent);
+    }
+
+    /**
+     * Reads an NTRUEncrypt public key directly from the buffer. The parameters are decoded for
+     * every key, as they hold a digest that is not thread safe.
+     *
+     * @param buffer the buffer.
+     * @return the public key, or null.
+     * @throws IOException when the key cannot be decoded, or has no parameters.
+     */
+    public static NTRUEncryptionPublicKeyParameters readKey(ByteBuffer buffer) throws IOException {
+        ByteBuffer key = readField(buffer);
+        ByteBuffer params = readField(buffer);
+        if (key == null) return null;
+        if (params == null) throw new IOException("Public key without parameters");
+        return new NTRUEncryptionPublicKeyParameters(new ByteBufferInputStream(key),
+                new NTRUEncryptionParameters(new ByteBufferInputStream(params)));
+    }
+
+    public static EncryptedNonce readNonce(ByteBuffer buffer) throws IOException {
+        byte[] nonce = readBytes(buffer);
+        return nonce == null ? null : new EncryptedNonce(nonce);
+    }
+
+    /**
+     * Writes the fields of a file in the binary format.
+     */
+    public static final class Writer {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private Writer() {
+        }
+
+        public Writer writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        public Writer writeBytes(byte[] value) {
+            if (value == null) return writeInt(-1);
+            try {
+                out.writeInt(value.length);
+                out.write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        public Writer writeString(String value) {
+            return writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public Writer writeData(EncryptedData data) {
+            if (data == null || data.isEmpty()) return writeBytes(null).writeInt(0);
+            return writeBytes(data.getCiphertext().toByteArray()).writeInt(Integer.parseInt(data.getExponent()));
+        }
+
+        public Writer writeKey(NTRUEncryptionPublicKeyParameters key) {
+            if (key == null) return writeBytes(null).writeBytes(null);
+            ByteArrayOutputStream params = new ByteArrayOutputStream();
+            try {
+                key.getParameters().writeTo(params);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return writeBytes(key.getEncoded()).writeBytes(params.toByteArray());
+        }
+
+        public Writer writeNonce(EncryptedNonce nonce) {
+            return writeBytes(nonce == null ? null : nonce.getNonce());
+        }
+
+        public byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
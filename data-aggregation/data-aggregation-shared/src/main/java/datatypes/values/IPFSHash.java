@@ -0,0 +1,58 @@
+package datatypes.values;
+
+import io.ipfs.multihash.Multihash;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the hash IPFS gives a file when it is added with the default settings, without going
+ * to the daemon. Only files that fit in a single chunk are supported; their hash is the sha2-256
+ * of the UnixFS file node holding the content.
+ */
+final class IPFSHash {
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private IPFSHash() {
+    }
+
+    /**
+     * @param file the content of the file.
+     * @return the hash of the file, or null when the file is larger than a single chunk.
+     */
+    static Multihash of(byte[] file) {
+        if (file.length == 0 || file.length > CHUNK_SIZE) return null;
+
+        // unixfs Data { Type = File, Data = file, filesize = file.length }
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream(file.length + 16);
+        unixfs.write(0x08);
+        unixfs.write(2);
+        unixfs.write(0x12);
+        writeVarint(unixfs, file.length);
+        unixfs.write(file, 0, file.length);
+        unixfs.write(0x18);
+        writeVarint(unixfs, file.length);
+
+        // dag-pb PBNode { Data = unixfs }
+        ByteArrayOutputStream node = new ByteArrayOutputStream(unixfs.size() + 8);
+        node.write(0x0a);
+        writeVarint(node, unixfs.size());
+        node.write(unixfs.toByteArray(), 0, unixfs.size());
+
+        try {
+            return new Multihash(Multihash.Type.sha2_256, MessageDigest.getInstance("SHA-256").digest(node.toByteArray()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
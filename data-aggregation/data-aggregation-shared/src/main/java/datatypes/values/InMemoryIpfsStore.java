@@ -0,0 +1,45 @@
+package datatypes.values;
+
+import io.ipfs.multihash.Multihash;
+
+import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores files in memory, for running the applications and contracts on a single machine without
+ * an IPFS daemon. Files within a single chunk get the same hash as on IPFS, larger files are hashed
+ * by their content only.
+ */
+public class InMemoryIpfsStore implements IpfsStore {
+
+    private final ConcurrentMap<Multihash, byte[]> files = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Multihash> add(byte[] file) {
+        Multihash hash = IPFSHash.of(file);
+        if (hash == null) hash = sha256(file);
+        this.files.putIfAbsent(hash, file.clone());
+        return CompletableFuture.completedFuture(hash);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> cat(Multihash hash) {
+        byte[] file = this.files.get(hash);
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        if (file == null) result.completeExceptionally(new FileNotFoundException("No file with hash " + hash.toBase58()));
+        else result.complete(file.clone());
+        return result;
+    }
+
+    private static Multihash sha256(byte[] file) {
+        try {
+            return new Multihash(Multihash.Type.sha2_256, MessageDigest.getInstance("SHA-256").digest(file));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package datatypes.values;
+
+import io.ipfs.multihash.Multihash;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores files by the hash of their content, such as IPFS. Implementations are thread safe.
+ */
+public interface IpfsStore {
+
+    /**
+     * Adds a file.
+     *
+     * @param file the content of the file.
+     * @return the hash of the file, completed exceptionally when the file cannot be added.
+     */
+    CompletableFuture<Multihash> add(byte[] file);
+
+    /**
+     * Retrieves a file.
+     *
+     * @param hash the hash of the file.
+     * @return the content of the file, completed exceptionally when the file cannot be retrieved.
+     */
+    CompletableFuture<byte[]> cat(Multihash hash);
+}
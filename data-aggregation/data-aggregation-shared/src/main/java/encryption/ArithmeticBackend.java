@@ -0,0 +1,72 @@
+package encryption;
+
+import java.math.BigInteger;
+
+/**
+ * The modular arithmetic Paillier encryption, homomorphic addition and decryption run on. The
+ * backend is selected once at startup with detect.
+ */
+public interface ArithmeticBackend {
+
+    /**
+     * Computes base^exponent mod modulus, for a base and exponent that are public.
+     *
+     * @param base     the base.
+     * @param exponent the exponent.
+     * @param modulus  the modulus, odd.
+     * @return the power.
+     */
+    BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus);
+
+    /**
+     * Computes base^exponent mod modulus, for a base or exponent that is secret. Backends that
+     * can, do so in constant time.
+     *
+     * @param base     the base.
+     * @param exponent the exponent, positive.
+     * @param modulus  the modulus, odd.
+     * @return the power.
+     */
+    BigInteger modPowSecret(BigInteger base, BigInteger exponent, BigInteger modulus);
+
+    /**
+     * @param value   the value.
+     * @param modulus the modulus.
+     * @return the inverse of the value mod modulus.
+     */
+    BigInteger modInverse(BigInteger value, BigInteger modulus);
+
+    /**
+     * @param a       the first factor.
+     * @param b       the second factor.
+     * @param modulus the modulus.
+     * @return a * b mod modulus.
+     */
+    BigInteger multiplyMod(BigInteger a, BigInteger b, BigInteger modulus);
+
+    /**
+     * @return the name of the backend.
+     */
+    String getName();
+
+    /**
+     * Selects the backend with the paillier.arithmetic system property: java, gmp, or auto, the
+     * default. Auto uses GMP when the native libgmp can be loaded, and pure Java otherwise.
+     *
+     * @return the backend.
+     */
+    static ArithmeticBackend detect() {
+        String name = System.getProperty("paillier.arithmetic", "auto");
+        switch (name) {
+            case "java":
+                return new JavaArithmeticBackend();
+            case "gmp":
+                if (!GmpArithmeticBackend.isAvailable()) throw new IllegalStateException("libgmp could not be loaded");
+                return new GmpArithmeticBackend();
+            case "auto":
+                return GmpArithmeticBackend.isAvailable() ? new GmpArithmeticBackend() : new JavaArithmeticBackend();
+            default:
+                throw new IllegalArgumentException("Unknown arithmetic backend: " + name);
+        }
+    }
+}
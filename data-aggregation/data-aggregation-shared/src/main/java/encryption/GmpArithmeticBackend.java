@@ -0,0 +1,49 @@
+package encryption;
+
+import com.squareup.jnagmp.Gmp;
+
+import java.math.BigInteger;
+
+/**
+ * Modular arithmetic on the native GMP library through jnagmp. Secret powers use mpz_powm_sec,
+ * which runs in constant time. jnagmp has no modular multiplication, so that stays on BigInteger.
+ */
+public class GmpArithmeticBackend implements ArithmeticBackend {
+
+    /**
+     * @return true when the native libgmp can be loaded.
+     */
+    public static boolean isAvailable() {
+        try {
+            Gmp.checkLoaded();
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        return Gmp.modPowInsecure(base, exponent, modulus);
+    }
+
+    @Override
+    public BigInteger modPowSecret(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        return Gmp.modPowSecure(base, exponent, modulus);
+    }
+
+    @Override
+    public BigInteger modInverse(BigInteger value, BigInteger modulus) {
+        return Gmp.modInverse(value, modulus);
+    }
+
+    @Override
+    public BigInteger multiplyMod(BigInteger a, BigInteger b, BigInteger modulus) {
+        return a.multiply(b).mod(modulus);
+    }
+
+    @Override
+    public String getName() {
+        return "gmp";
+    }
+}
@@ -0,0 +1,34 @@
+package encryption;
+
+import java.math.BigInteger;
+
+/**
+ * Modular arithmetic on java.math.BigInteger.
+ */
+public class JavaArithmeticBackend implements ArithmeticBackend {
+
+    @Override
+    public BigInteger modPow(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        return base.modPow(exponent, modulus);
+    }
+
+    @Override
+    public BigInteger modPowSecret(BigInteger base, BigInteger exponent, BigInteger modulus) {
+        return base.modPow(exponent, modulus);
+    }
+
+    @Override
+    public BigInteger modInverse(BigInteger value, BigInteger modulus) {
+        return value.modInverse(modulus);
+    }
+
+    @Override
+    public BigInteger multiplyMod(BigInteger a, BigInteger b, BigInteger modulus) {
+        return a.multiply(b).mod(modulus);
+    }
+
+    @Override
+    public String getName() {
+        return "java";
+    }
+}
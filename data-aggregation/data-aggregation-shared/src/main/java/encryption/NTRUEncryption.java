@@ -7,12 +7,26 @@ import org.bouncycastler.pqc.crypto.ntru.*;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class NTRUEncryption {
 
-    private static final NTRUEngine ntru = new NTRUEngine();
+    private static final int ENCRYPTION_ENGINES_PER_THREAD = 32;
+    // per thread, engines initialized with recently used public keys, keyed by the serialized key
+    private static final ThreadLocal<Map<String, NTRUEngine>> encryptionEngines = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<String, NTRUEngine>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, NTRUEngine> eldest) {
+                    return size() > ENCRYPTION_ENGINES_PER_THREAD;
+                }
+            });
+
     private final AsymmetricCipherKeyPair keys;
+    // one engine per thread, initialized once with the private key
+    private final ThreadLocal<NTRUEngine> decryptionEngine = ThreadLocal.withInitial(this::newDecryptionEngine);
 
     public NTRUEncryption(NTRUEncryptionKeyGenerationParameters params) {
         params.polyType = NTRUParameters.TERNARY_POLYNOMIAL_TYPE_SIMPLE;
@@ -22,7 +36,9 @@ public class NTRUEncryption {
     }
 
     /**
-     * Encrypts the data with the NTRUEncrypt public key.
+     * Encrypts the data with the NTRUEncrypt public key. Safe to call from several threads at
+     * once. Each thread keeps engines for the public keys it used most recently, so a key is
+     * deserialized once per thread rather than on every call.
      *
      * @param data    the data that will be encrypted.
      * @param serPqpk the public key.
@@ -30,21 +46,54 @@ public class NTRUEncryption {
      * @throws InvalidCipherTextException thrown by processBlock method.
      */
     public static byte[] encrypt(byte[] data, String serPqpk) throws InvalidCipherTextException {
-        NTRUEncryptionPublicKeyParameters pqpk = NTRUEncryption.deserialize(serPqpk);
-        ntru.init(true, pqpk);
-        return ntru.processBlock(data, 0, data.length);
+        return encryptionEngines.get().computeIfAbsent(serPqpk, NTRUEncryption::newEncryptionEngine)
+                .processBlock(data, 0, data.length);
+    }
+
+    /**
+     * Creates an engine that is initialized for encryption with the public key. The key is
+     * deserialized for every engine, as the key parameters hold a digest that is not thread safe.
+     *
+     * @param serPqpk the public key.
+     * @return the engine.
+     */
+    private static NTRUEngine newEncryptionEngine(String serPqpk) {
+        NTRUEngine engine = new NTRUEngine();
+        engine.init(true, NTRUEncryption.deserialize(serPqpk));
+        return engine;
     }
 
     /**
-     * Decrypts the data with the NTRUEncrypt private key.
+     * Decrypts the data with the NTRUEncrypt private key. Safe to call from several
+     * threads at once, each thread decrypts with its own engine.
      *
      * @param encData the encrypted data.
      * @return the decrypted data.
      * @throws InvalidCipherTextException thrown by processBlock method.
      */
     public byte[] decrypt(byte[] encData) throws InvalidCipherTextException {
-        ntru.init(false, this.keys.getPrivate());
-        return ntru.processBlock(encData, 0, encData.length);
+        return decryptionEngine.get().processBlock(encData, 0, encData.length);
+    }
+
+    /**
+     * Creates an engine that is initialized for decryption with the private key.
+     *
+     * @return the engine.
+     */
+    private NTRUEngine newDecryptionEngine() {
+        // the key parameters hold a digest that is not thread safe, so every engine decodes its own copy
+        NTRUEncryptionPrivateKeyParameters sk = (NTRUEncryptionPrivateKeyParameters) this.keys.getPrivate();
+        try {
+            ByteArrayOutputStream parOut = new ByteArrayOutputStream();
+            sk.getParameters().writeTo(parOut);
+            NTRUEncryptionParameters params = new NTRUEncryptionParameters(new ByteArrayInputStream(parOut.toByteArray()));
+
+            NTRUEngine engine = new NTRUEngine();
+            engine.init(false, new NTRUEncryptionPrivateKeyParameters(sk.getEncoded(), params));
+            return engine;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
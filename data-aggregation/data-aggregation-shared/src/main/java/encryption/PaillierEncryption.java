@@ -1,47 +1,136 @@
 package encryption;
 
+import com.n1analytics.paillier.EncodedNumber;
 import com.n1analytics.paillier.EncryptedNumber;
 import com.n1analytics.paillier.PaillierContext;
-import com.n1analytics.paillier.PaillierPrivateKey;
 import com.n1analytics.paillier.PaillierPublicKey;
 import datatypes.values.EncryptedData;
 
 import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class PaillierEncryption {
 
-    private final PaillierPrivateKey keys;
+    private static final int KEY_CACHE_SIZE = 32;
 
+    private static final SecureRandom random = new SecureRandom();
+
+    private static volatile ArithmeticBackend arithmetic = ArithmeticBackend.detect();
+
+    /**
+     * Public keys and their contexts by serialized modulus. Parsing a modulus and precomputing
+     * its square is costly for large keys, and the same few keys are used by every transaction of
+     * a process.
+     */
+    private static final Map<String, CachedKey> KEYS = new LinkedHashMap<String, CachedKey>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedKey> eldest) {
+            return size() > KEY_CACHE_SIZE;
+        }
+    };
+
+    private final PaillierPublicKey publicKey;
+    private final PaillierContext context;
+    private final BigInteger p;
+    private final BigInteger q;
+    private final BigInteger pSquared;
+    private final BigInteger qSquared;
+    private final BigInteger pMinusOne;
+    private final BigInteger qMinusOne;
+    private final BigInteger hp;
+    private final BigInteger hq;
+    private final BigInteger pInverse;
+
+    /**
+     * Generates a key pair whose modulus has keySize bits, and precomputes the values needed to
+     * decrypt mod p^2 and q^2 and combine the results with the Chinese remainder theorem.
+     *
+     * @param keySize the size of the modulus in bits.
+     */
     public PaillierEncryption(int keySize) {
-        this.keys = PaillierPrivateKey.create(keySize);
+        BigInteger p, q, modulus;
+        do {
+            p = BigInteger.probablePrime(keySize / 2, random);
+            q = BigInteger.probablePrime(keySize - keySize / 2, random);
+            modulus = p.multiply(q);
+        } while (p.equals(q) || modulus.bitLength() != keySize);
+
+        this.publicKey = new PaillierPublicKey(modulus);
+        this.context = this.publicKey.createUnsignedContext();
+        this.p = p;
+        this.q = q;
+        this.pSquared = p.multiply(p);
+        this.qSquared = q.multiply(q);
+        this.pMinusOne = p.subtract(BigInteger.ONE);
+        this.qMinusOne = q.subtract(BigInteger.ONE);
+        BigInteger generator = modulus.add(BigInteger.ONE);
+        this.hp = h(generator, p, this.pSquared, this.pMinusOne);
+        this.hq = h(generator, q, this.qSquared, this.qMinusOne);
+        this.pInverse = arithmetic.modInverse(p, q);
     }
 
     /**
-     * Encrypts the data using the Paillier public key.
+     * Encrypts the data using the Paillier public key. The ciphertext is (1 + n * m) * r^n mod n^2,
+     * with the obfuscator r^n mod n^2 taken from the PaillierObfuscatorPool when it holds one for
+     * the key, and computed here otherwise.
      *
      * @param data    the data that will be encrypted.
      * @param modulus the modulus of the Paillier public key.
      * @return the encrypted data.
      */
     public static EncryptedData encrypt(BigInteger data, String modulus) {
-        PaillierPublicKey reformedPublicKey = new PaillierPublicKey(new BigInteger(modulus));
-        PaillierContext ctx = reformedPublicKey.createUnsignedContext();
-        EncryptedNumber encData = ctx.encrypt(data);
-        return new EncryptedData(encData.calculateCiphertext().toString(), String.valueOf(encData.getExponent()));
+        CachedKey key = cachedKey(modulus);
+        BigInteger obfuscator = PaillierObfuscatorPool.take(modulus);
+        if (obfuscator == null) obfuscator = obfuscator(key.publicKey.getModulus(), key.publicKey.getModulusSquared());
+
+        EncodedNumber encoded = key.unsignedContext.encode(data);
+        BigInteger modulusSquared = key.publicKey.getModulusSquared();
+        BigInteger ciphertext = arithmetic.multiplyMod(
+                key.publicKey.getModulus().multiply(encoded.getValue()).add(BigInteger.ONE), obfuscator, modulusSquared);
+        return new EncryptedData(ciphertext, encoded.getExponent());
+    }
+
+    /**
+     * Adds two encrypted values of the same Paillier key. When their exponents are equal the sum
+     * is the product of the ciphertexts mod n^2, otherwise javallier aligns the exponents first.
+     *
+     * @param context the context of the Paillier public key.
+     * @param a       the first value.
+     * @param b       the second value.
+     * @return the encrypted sum.
+     */
+    public static EncryptedData add(PaillierContext context, EncryptedData a, EncryptedData b) {
+        int exponent = Integer.parseInt(a.getExponent());
+        if (exponent == Integer.parseInt(b.getExponent())) {
+            BigInteger modulusSquared = context.getPublicKey().getModulusSquared();
+            return new EncryptedData(arithmetic.multiplyMod(a.getCiphertext(), b.getCiphertext(), modulusSquared), exponent);
+        }
+
+        EncryptedNumber sum = new EncryptedNumber(context, a.getCiphertext(), exponent, true)
+                .add(new EncryptedNumber(context, b.getCiphertext(), Integer.parseInt(b.getExponent()), true));
+        return new EncryptedData(sum.calculateCiphertext(), sum.getExponent());
     }
 
     /**
-     * Decrypts the data using the Paillier private key.
+     * Decrypts the data using the Paillier private key. The ciphertext is decrypted mod p and
+     * mod q with exponents of half the size, and the results are combined with the Chinese
+     * remainder theorem.
      *
      * @param data the data that will be decrypted.
      * @return the decrypted data.
      */
     public BigInteger decrypt(EncryptedData data) {
-        PaillierPublicKey pubkey = this.keys.getPublicKey();
-        PaillierContext ctx = pubkey.createUnsignedContext();
+        BigInteger ciphertext = data.getCiphertext();
+        BigInteger mp = l(arithmetic.modPowSecret(ciphertext.mod(this.pSquared), this.pMinusOne, this.pSquared), this.p)
+                .multiply(this.hp).mod(this.p);
+        BigInteger mq = l(arithmetic.modPowSecret(ciphertext.mod(this.qSquared), this.qMinusOne, this.qSquared), this.q)
+                .multiply(this.hq).mod(this.q);
+        BigInteger value = mq.subtract(mp).multiply(this.pInverse).mod(this.q).multiply(this.p).add(mp);
 
-        EncryptedNumber encryptedNumber = new EncryptedNumber(ctx, new BigInteger(data.getData()), Integer.parseInt(data.getExponent()));
-        return this.keys.decrypt(encryptedNumber).decodeBigInteger();
+        // decoded as javallier does for an unsigned context, whose EncodedNumber cannot be created here
+        return value.multiply(BigInteger.valueOf(this.context.getBase()).pow(Integer.parseInt(data.getExponent())));
     }
 
     /**
@@ -50,7 +139,7 @@ public class PaillierEncryption {
      * @return the serialized PaillierPublicKey.
      */
     public String serialize() {
-        return this.keys.getPublicKey().getModulus().toString();
+        return this.publicKey.getModulus().toString();
     }
 
     /**
@@ -60,10 +149,106 @@ public class PaillierEncryption {
      * @return the PaillierPublicKey.
      */
     public static PaillierPublicKey deserialize(String str) {
-        return new PaillierPublicKey(new BigInteger(str));
+        return cachedKey(str).publicKey;
+    }
+
+    /**
+     * Returns the signed context of the Paillier public key with the given modulus.
+     *
+     * @param modulus the serialized modulus of the Paillier public key.
+     * @return the signed context.
+     */
+    public static PaillierContext signedContext(String modulus) {
+        return cachedKey(modulus).signedContext;
+    }
+
+    /**
+     * Returns the unsigned context of the Paillier public key with the given modulus.
+     *
+     * @param modulus the serialized modulus of the Paillier public key.
+     * @return the unsigned context.
+     */
+    public static PaillierContext unsignedContext(String modulus) {
+        return cachedKey(modulus).unsignedContext;
+    }
+
+    /**
+     * @return the arithmetic backend encryption, addition and decryption run on.
+     */
+    public static ArithmeticBackend getArithmeticBackend() {
+        return arithmetic;
+    }
+
+    /**
+     * Replaces the arithmetic backend selected at startup.
+     *
+     * @param backend the arithmetic backend.
+     */
+    public static void setArithmeticBackend(ArithmeticBackend backend) {
+        arithmetic = backend;
+    }
+
+    /**
+     * Computes the obfuscator r^n mod n^2 for a random r in [1, n).
+     *
+     * @param modulus        the modulus n of the Paillier public key.
+     * @param modulusSquared n^2.
+     * @return the obfuscator.
+     */
+    static BigInteger obfuscator(BigInteger modulus, BigInteger modulusSquared) {
+        BigInteger r;
+        do {
+            r = new BigInteger(modulus.bitLength(), random);
+        } while (r.signum() == 0 || r.compareTo(modulus) >= 0);
+        return arithmetic.modPowSecret(r, modulus, modulusSquared);
+    }
+
+    private static CachedKey cachedKey(String modulus) {
+        synchronized (KEYS) {
+            CachedKey key = KEYS.get(modulus);
+            if (key == null) {
+                key = new CachedKey(new PaillierPublicKey(new BigInteger(modulus)));
+                KEYS.put(modulus, key);
+            }
+            return key;
+        }
+    }
+
+    /**
+     * L(x) = (x - 1) / prime.
+     */
+    private static BigInteger l(BigInteger x, BigInteger prime) {
+        return x.subtract(BigInteger.ONE).divide(prime);
+    }
+
+    /**
+     * The inverse of L(g^(prime - 1) mod prime^2) mod prime.
+     */
+    private static BigInteger h(BigInteger generator, BigInteger prime, BigInteger primeSquared, BigInteger primeMinusOne) {
+        return arithmetic.modInverse(l(arithmetic.modPow(generator, primeMinusOne, primeSquared), prime), prime);
     }
 
     public PaillierPublicKey getPublic() {
-        return this.keys.getPublicKey();
+        return this.publicKey;
+    }
+
+    /**
+     * @return (p - 1) * (q - 1), from which javallier can rebuild the private key.
+     */
+    BigInteger totient() {
+        return this.pMinusOne.multiply(this.qMinusOne);
+    }
+
+    private static final class CachedKey {
+
+        private final PaillierPublicKey publicKey;
+        private final PaillierContext signedContext;
+        private final PaillierContext unsignedContext;
+
+        private CachedKey(PaillierPublicKey publicKey) {
+            this.publicKey = publicKey;
+            this.signedContext = publicKey.createSignedContext();
+            this.unsignedContext = publicKey.createUnsignedContext();
+        }
     }
 }
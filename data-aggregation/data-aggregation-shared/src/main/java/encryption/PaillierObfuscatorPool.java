@@ -0,0 +1,141 @@
+package encryption;
+
+import com.n1analytics.paillier.PaillierPublicKey;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Precomputes the obfuscators r^n mod n^2 of Paillier encryption, which make up nearly all of
+ * its cost. A pool is prepared for the key of a query as soon as the query starts, and is
+ * filled in the background on low priority threads. Encrypting with an obfuscator from the pool
+ * then only costs a multiplication. A pool holds at most paillier.pool.size obfuscators, and is
+ * evicted when the last query using its key is released.
+ */
+public final class PaillierObfuscatorPool {
+
+    private static final Logger LOG = Logger.getLogger(PaillierObfuscatorPool.class.getName());
+
+    private static final int CAPACITY = Integer.getInteger("paillier.pool.size", 8);
+
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "paillier-pool");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    /**
+     * Pools by serialized modulus, and the modulus used by every prepared process.
+     */
+    private static final Map<String, Pool> POOLS = new ConcurrentHashMap<>();
+    private static final Map<String, String> PROCESSES = new HashMap<>();
+
+    private PaillierObfuscatorPool() {
+    }
+
+    /**
+     * Starts filling the pool of the Paillier key of a process, unless it is already prepared for
+     * another process.
+     *
+     * @param processId the id of the process.
+     * @param modulus   the serialized modulus of the Paillier public key.
+     */
+    public static synchronized void prepare(String processId, String modulus) {
+        if (PROCESSES.containsKey(processId)) return;
+        PROCESSES.put(processId, modulus);
+
+        Pool pool = POOLS.get(modulus);
+        if (pool == null) {
+            pool = new Pool(PaillierEncryption.deserialize(modulus));
+            POOLS.put(modulus, pool);
+            LOG.finest(() -> "Preparing obfuscators for process " + processId);
+        }
+        pool.processes.add(processId);
+        pool.refill();
+    }
+
+    /**
+     * Releases the pool for a process. The pool is evicted when no other process uses its key.
+     *
+     * @param processId the id of the process.
+     */
+    public static synchronized void release(String processId) {
+        String modulus = PROCESSES.remove(processId);
+        if (modulus == null) return;
+
+        Pool pool = POOLS.get(modulus);
+        pool.processes.remove(processId);
+        if (!pool.processes.isEmpty()) return;
+
+        POOLS.remove(modulus);
+        pool.close();
+        LOG.finest(() -> "Evicted obfuscators after process " + processId);
+    }
+
+    /**
+     * Takes a precomputed obfuscator for the Paillier key, and schedules another one in its place.
+     *
+     * @param modulus the serialized modulus of the Paillier public key.
+     * @return the obfuscator, or null when no pool is prepared for the key or it is empty.
+     */
+    static BigInteger take(String modulus) {
+        Pool pool = POOLS.get(modulus);
+        if (pool == null) return null;
+
+        BigInteger obfuscator = pool.obfuscators.poll();
+        pool.refill();
+        return obfuscator;
+    }
+
+    private static final class Pool {
+
+        private final BigInteger modulus;
+        private final BigInteger modulusSquared;
+        private final BlockingQueue<BigInteger> obfuscators = new ArrayBlockingQueue<>(CAPACITY);
+        private final Set<String> processes = new HashSet<>();
+        private final AtomicInteger scheduled = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Pool(PaillierPublicKey publicKey) {
+            this.modulus = publicKey.getModulus();
+            this.modulusSquared = publicKey.getModulusSquared();
+        }
+
+        /**
+         * Schedules the computation of as many obfuscators as the pool is missing.
+         */
+        private void refill() {
+            while (true) {
+                int scheduled = this.scheduled.get();
+                if (this.closed || scheduled + this.obfuscators.size() >= CAPACITY) return;
+                if (this.scheduled.compareAndSet(scheduled, scheduled + 1)) workers.execute(this::compute);
+            }
+        }
+
+        private void compute() {
+            try {
+                if (!this.closed) this.obfuscators.offer(PaillierEncryption.obfuscator(this.modulus, this.modulusSquared));
+            } finally {
+                this.scheduled.decrementAndGet();
+            }
+        }
+
+        private void close() {
+            this.closed = true;
+            this.obfuscators.clear();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package applications.asker;
+
+import datatypes.values.EncryptedData;
+import datatypes.values.EncryptedNonce;
+import datatypes.values.EncryptedNonces;
+import datatypes.values.IPFSFileFormat;
+import encryption.NTRUEncryption;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionKeyGenerationParameters;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes DataQueryIPFSFiles in the binary format and reads them back, and reads files in the
+ * text format written before.
+ */
+public class DataQueryIPFSFileTest {
+
+    private static final NTRUEncryptionPublicKeyParameters KEY =
+            new NTRUEncryption(NTRUEncryptionKeyGenerationParameters.APR2011_439_FAST.clone()).getPublic();
+    private static final BigInteger CIPHERTEXT = new BigInteger("123456789012345678901234567890");
+    private static final byte[] NONCE = {1, 2, 3};
+
+    @Test
+    public void roundTrip() throws IOException {
+        DataQueryIPFSFile file = new DataQueryIPFSFile("98765", KEY, new EncryptedData(CIPHERTEXT, 0),
+                new EncryptedNonces(new EncryptedNonce[]{new EncryptedNonce(NONCE), null}));
+
+        DataQueryIPFSFile read = DataQueryIPFSFile.fromBytes(file.toBytes());
+
+        assertEquals("98765", read.getPaillierKey());
+        assertEquals(NTRUEncryption.serialize(KEY), NTRUEncryption.serialize(read.getPostqKey()));
+        assertEquals(CIPHERTEXT, read.getData().getCiphertext());
+        assertEquals("0", read.getData().getExponent());
+        assertEquals(2, read.getNonces().getNonces().length);
+        assertArrayEquals(NONCE, read.getNonces().getNonces()[0].getNonce());
+        assertNull(read.getNonces().getNonces()[1]);
+    }
+
+    @Test
+    public void roundTripWithoutKeyDataAndNonces() throws IOException {
+        DataQueryIPFSFile file = new DataQueryIPFSFile(null, null, null, new EncryptedNonces(new EncryptedNonce[3]));
+
+        DataQueryIPFSFile read = DataQueryIPFSFile.fromBytes(file.toBytes());
+
+        assertNull(read.getPaillierKey());
+        assertNull(read.getPostqKey());
+        assertTrue(read.getData().isEmpty());
+        assertArrayEquals(new EncryptedNonce[3], read.getNonces().getNonces());
+    }
+
+    @Test
+    public void readsTextFormat() throws IOException {
+        String key = NTRUEncryption.serialize(KEY);
+        String file = "98765\n" + key + "\n" + CIPHERTEXT + ":0;[AQID,null]";
+
+        DataQueryIPFSFile read = DataQueryIPFSFile.fromBytes(file.getBytes(UTF_8));
+
+        assertEquals("98765", read.getPaillierKey());
+        assertEquals(key, NTRUEncryption.serialize(read.getPostqKey()));
+        assertEquals(CIPHERTEXT, read.getData().getCiphertext());
+        assertArrayEquals(NONCE, read.getNonces().getNonces()[0].getNonce());
+        assertNull(read.getNonces().getNonces()[1]);
+    }
+
+    @Test
+    public void rejectsAggregationFile() {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.AGGREGATION)
+                .writeString("98765").writeKey(null).writeData(null).writeInt(0).writeInt(0).toByteArray();
+
+        assertThrows(IOException.class, () -> DataQueryIPFSFile.fromBytes(file));
+    }
+
+    @Test
+    public void rejectsTruncatedFile() {
+        byte[] file = new DataQueryIPFSFile("98765", KEY, new EncryptedData(CIPHERTEXT, 0),
+                new EncryptedNonces(new EncryptedNonce[]{new EncryptedNonce(NONCE), null})).toBytes();
+
+        for (int length = 4; length < file.length; length++) {
+            byte[] truncated = Arrays.copyOf(file, length);
+            assertThrows(IOException.class, () -> DataQueryIPFSFile.fromBytes(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidCounts() {
+        byte[] negative = IPFSFileFormat.writer(IPFSFileFormat.DATA_QUERY)
+                .writeString("98765").writeKey(null).writeData(null).writeInt(-1).toByteArray();
+        assertThrows(IOException.class, () -> DataQueryIPFSFile.fromBytes(negative));
+
+        byte[] oversized = IPFSFileFormat.writer(IPFSFileFormat.DATA_QUERY)
+                .writeString("98765").writeKey(null).writeData(null).writeInt(2).writeInt(-1).toByteArray();
+        assertThrows(IOException.class, () -> DataQueryIPFSFile.fromBytes(oversized));
+    }
+}
@@ -0,0 +1,134 @@
+package applications.operator;
+
+import datatypes.values.EncryptedData;
+import datatypes.values.EncryptedNonce;
+import datatypes.values.EncryptedNonces;
+import datatypes.values.IPFSFileFormat;
+import encryption.NTRUEncryption;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionKeyGenerationParameters;
+import org.bouncycastler.pqc.crypto.ntru.NTRUEncryptionPublicKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes AggregationIPFSFiles in the binary format and reads them back, and reads files in the
+ * text format written before.
+ */
+public class AggregationIPFSFileTest {
+
+    private static final NTRUEncryptionPublicKeyParameters KEY =
+            new NTRUEncryption(NTRUEncryptionKeyGenerationParameters.APR2011_439_FAST.clone()).getPublic();
+    private static final BigInteger CIPHERTEXT = new BigInteger("123456789012345678901234567890");
+    private static final EncryptedNonce NONCE = new EncryptedNonce(new byte[]{1, 2, 3});
+
+    private static AggregationIPFSFile file() {
+        ArrayList<EncryptedNonces> nonces = new ArrayList<>();
+        nonces.add(new EncryptedNonces(new EncryptedNonce[]{NONCE, null}));
+        nonces.add(new EncryptedNonces(new EncryptedNonce[]{null, NONCE}));
+        return new AggregationIPFSFile("98765", KEY, new EncryptedData(CIPHERTEXT, 0),
+                new NTRUEncryptionPublicKeyParameters[]{KEY, null}, nonces);
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        AggregationIPFSFile read = AggregationIPFSFile.fromBytes(file().toBytes());
+
+        assertEquals("98765", read.getPaillierKey());
+        assertEquals(NTRUEncryption.serialize(KEY), NTRUEncryption.serialize(read.getPostqKey()));
+        assertEquals(CIPHERTEXT, read.getData().getCiphertext());
+        assertEquals("0", read.getData().getExponent());
+        assertEquals(NTRUEncryption.serialize(KEY), NTRUEncryption.serialize(read.getOperatorKeys()[0]));
+        assertNull(read.getOperatorKeys()[1]);
+        assertNonces(file().getNonces(), read.getNonces());
+    }
+
+    @Test
+    public void roundTripWithoutKeysDataAndNonces() throws IOException {
+        AggregationIPFSFile file = new AggregationIPFSFile(null, null, null,
+                new NTRUEncryptionPublicKeyParameters[2], new ArrayList<>());
+
+        AggregationIPFSFile read = AggregationIPFSFile.fromBytes(file.toBytes());
+
+        assertNull(read.getPaillierKey());
+        assertNull(read.getPostqKey());
+        assertTrue(read.getData().isEmpty());
+        assertArrayEquals(new NTRUEncryptionPublicKeyParameters[2], read.getOperatorKeys());
+        assertTrue(read.getNonces().isEmpty());
+    }
+
+    @Test
+    public void readsTextFormat() throws IOException {
+        String key = NTRUEncryption.serialize(KEY);
+        String file = "98765\n" + key + "\n" + CIPHERTEXT + ":0;[[AQID,null],[null,AQID]]\n[" + key + ",null]";
+
+        AggregationIPFSFile read = AggregationIPFSFile.fromBytes(file.getBytes(UTF_8));
+
+        assertEquals("98765", read.getPaillierKey());
+        assertEquals(key, NTRUEncryption.serialize(read.getPostqKey()));
+        assertEquals(CIPHERTEXT, read.getData().getCiphertext());
+        assertEquals(key, NTRUEncryption.serialize(read.getOperatorKeys()[0]));
+        assertNull(read.getOperatorKeys()[1]);
+        assertNonces(file().getNonces(), read.getNonces());
+    }
+
+    @Test
+    public void rejectsDataQueryFile() {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.DATA_QUERY)
+                .writeString("98765").writeKey(null).writeData(null).writeInt(0).toByteArray();
+
+        assertThrows(IOException.class, () -> AggregationIPFSFile.fromBytes(file));
+    }
+
+    @Test
+    public void rejectsTruncatedFile() {
+        byte[] file = file().toBytes();
+
+        for (int length = 4; length < file.length; length++) {
+            byte[] truncated = Arrays.copyOf(file, length);
+            assertThrows(IOException.class, () -> AggregationIPFSFile.fromBytes(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    public void rejectsInvalidCounts() {
+        byte[] negative = fields().writeInt(-1).toByteArray();
+        assertThrows(IOException.class, () -> AggregationIPFSFile.fromBytes(negative));
+
+        byte[] oversizedKeys = fields().writeInt(Integer.MAX_VALUE).toByteArray();
+        assertThrows(IOException.class, () -> AggregationIPFSFile.fromBytes(oversizedKeys));
+
+        byte[] oversizedNonces = fields().writeInt(0).writeInt(1).writeInt(1000).toByteArray();
+        assertThrows(IOException.class, () -> AggregationIPFSFile.fromBytes(oversizedNonces));
+    }
+
+    /**
+     * @return a writer holding the fields of an AggregationIPFSFile before its operator keys.
+     */
+    private static IPFSFileFormat.Writer fields() {
+        return IPFSFileFormat.writer(IPFSFileFormat.AGGREGATION).writeString("98765").writeKey(null).writeData(null);
+    }
+
+    private static void assertNonces(ArrayList<EncryptedNonces> expected, ArrayList<EncryptedNonces> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            EncryptedNonce[] expectedNonces = expected.get(i).getNonces();
+            EncryptedNonce[] actualNonces = actual.get(i).getNonces();
+            assertEquals(expectedNonces.length, actualNonces.length);
+            for (int j = 0; j < expectedNonces.length; j++) {
+                if (expectedNonces[j] == null) assertNull(actualNonces[j]);
+                else assertArrayEquals(expectedNonces[j].getNonce(), actualNonces[j].getNonce());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package applications.operator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Indexes and parses CSV files with the line endings, blank lines and values found in datasets.
+ */
+public class MappedCsvMeasurementSourceTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedCsvMeasurementSource source(String content, int column) throws IOException {
+        Path file = this.directory.resolve("measurements.csv");
+        Files.write(file, content.getBytes(UTF_8));
+        return new MappedCsvMeasurementSource(file, column, true);
+    }
+
+    private static long[] next(MeasurementSource source, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) values[i] = source.next();
+        return values;
+    }
+
+    @Test
+    public void readsLinesInOrderAndWrapsAround() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value\n1,10\n2,20\n3,30\n", 1);
+
+        assertEquals(3, source.size());
+        assertArrayEquals(new long[]{10, 20, 30, 10, 20, 30, 10}, next(source, 7));
+    }
+
+    @Test
+    public void readsCrlfLines() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value\r\n1,10\r\n2,20\r\n", 1);
+
+        assertEquals(2, source.size());
+        assertArrayEquals(new long[]{10, 20}, next(source, 2));
+    }
+
+    @Test
+    public void readsLastLineWithoutNewline() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value\n1,10\n2,20", 1);
+
+        assertEquals(2, source.size());
+        assertArrayEquals(new long[]{10, 20}, next(source, 2));
+    }
+
+    @Test
+    public void skipsBlankLines() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value\n\n1,10\r\n\r\n2,20\n\n", 1);
+
+        assertEquals(2, source.size());
+        assertArrayEquals(new long[]{10, 20}, next(source, 2));
+    }
+
+    @Test
+    public void usesIntegerPartOfNegativeAndFractionalValues() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value,unit\n1,-12,W\n2,7.9,W\n3,-3.5,W\n4,0.25,W\n", 1);
+
+        assertArrayEquals(new long[]{-12, 7, -3, 0}, next(source, 4));
+    }
+
+    @Test
+    public void readsFirstAndLastColumn() throws IOException {
+        String content = "value,time,other\n5,1,50\r\n6,2,60\n";
+
+        assertArrayEquals(new long[]{5, 6}, next(source(content, 0), 2));
+        assertArrayEquals(new long[]{50, 60}, next(source(content, 2), 2));
+    }
+
+    @Test
+    public void rejectsLineWithoutColumn() throws IOException {
+        MappedCsvMeasurementSource source = source("time,value\n1,10\n2\n3", 1);
+
+        assertEquals(10, source.next());
+        assertThrows(IllegalStateException.class, source::next);
+        assertThrows(IllegalStateException.class, source::next);
+    }
+
+    @Test
+    public void rejectsFileWithoutMeasurements() {
+        assertThrows(IOException.class, () -> source("time,value\n\r\n\n", 1));
+        assertThrows(IOException.class, () -> source("time,value", 1));
+    }
+
+    @Test
+    public void picksRandomLinesOfFile() throws IOException {
+        Path file = this.directory.resolve("measurements.csv");
+        Files.write(file, "time,value\n1,10\n2,20\n3,30\n".getBytes(UTF_8));
+        MappedCsvMeasurementSource source = new MappedCsvMeasurementSource(file, 1, false);
+
+        Set<Long> values = new HashSet<>();
+        for (long value : next(source, 100)) values.add(value);
+        assertTrue(new HashSet<>(Arrays.asList(10L, 20L, 30L)).containsAll(values));
+    }
+}
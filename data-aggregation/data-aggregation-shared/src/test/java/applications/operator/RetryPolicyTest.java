@@ -0,0 +1,63 @@
+package applications.operator;
+
+import applications.operator.RetryPolicy.Failure;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classifies the exceptions fabric-gateway-java 2.1.1 throws from Transaction.submit, with the
+ * messages of its commit handler and endorsement.
+ */
+public class RetryPolicyTest {
+
+    private static final String REJECTED = "Transaction commit was rejected by peer peer0.org1.example.com";
+
+    @Test
+    public void rejectedCommitWithoutValidationCodeIsNotUnderstood() {
+        assertEquals(Failure.REJECTED, RetryPolicy.classify(new ContractException(REJECTED)));
+    }
+
+    @Test
+    public void rejectedCommitWithConflictIsConflict() {
+        ContractException rejected = new ContractException(REJECTED);
+        assertEquals(Failure.CONFLICT, RetryPolicy.classify(
+                new ContractException(REJECTED + " with validation code MVCC_READ_CONFLICT", rejected)));
+        assertEquals(Failure.CONFLICT, RetryPolicy.classify(
+                new ContractException(REJECTED + " with validation code PHANTOM_READ_CONFLICT", rejected)));
+    }
+
+    @Test
+    public void rejectedCommitWithOtherCodeIsInvalid() {
+        assertEquals(Failure.INVALID, RetryPolicy.classify(
+                new ContractException(REJECTED + " with validation code ENDORSEMENT_POLICY_FAILURE")));
+    }
+
+    @Test
+    public void commitTimeoutIsTimeout() {
+        assertEquals(Failure.TIMEOUT, RetryPolicy.classify(new TimeoutException("Commit timeout")));
+        assertEquals(Failure.TIMEOUT, RetryPolicy.classify(new ContractException("Failed to submit", new TimeoutException())));
+    }
+
+    @Test
+    public void chaincodeErrorIsEndorsement() {
+        assertEquals(Failure.ENDORSEMENT, RetryPolicy.classify(new ContractException(
+                "No valid proposal responses received. 2 peer error responses: The aggregation process 1 does not exist")));
+    }
+
+    @Test
+    public void onlyIdempotentTransactionsAreRetriedWhenTheyMayHaveCommitted() {
+        assertTrue(Failure.CONFLICT.isRetryable(false));
+        assertFalse(Failure.REJECTED.isRetryable(false));
+        assertFalse(Failure.TIMEOUT.isRetryable(false));
+        assertTrue(Failure.REJECTED.isRetryable(true));
+        assertTrue(Failure.TIMEOUT.isRetryable(true));
+        assertFalse(Failure.INVALID.isRetryable(true));
+        assertFalse(Failure.ENDORSEMENT.isRetryable(true));
+    }
+}
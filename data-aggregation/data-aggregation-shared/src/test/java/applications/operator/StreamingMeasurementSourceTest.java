@@ -0,0 +1,82 @@
+package applications.operator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Waits for the first reading of a feed, and stops waiting when the feed ends or times out.
+ */
+public class StreamingMeasurementSourceTest {
+
+    private static final String TIMEOUT = "measurement.timeout";
+
+    @AfterEach
+    public void clearTimeout() {
+        System.clearProperty(TIMEOUT);
+    }
+
+    private static ByteArrayInputStream feed(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(UTF_8));
+    }
+
+    @Test
+    public void waitsForFirstReading() {
+        StreamingMeasurementSource source = new StreamingMeasurementSource();
+        new Thread(() -> {
+            sleep(50);
+            source.update(42);
+        }).start();
+
+        assertEquals(42, source.next());
+        source.update(43);
+        assertEquals(43, source.next());
+    }
+
+    @Test
+    public void readsIntegerPartFromFeed() {
+        StreamingMeasurementSource source = new StreamingMeasurementSource()
+                .follow(feed("time,value\r\n\r\n1,-3.5\r\n"), 1);
+
+        assertEquals(-3, source.next());
+    }
+
+    @Test
+    public void throwsWhenFeedEndsWithoutReading() {
+        StreamingMeasurementSource source = new StreamingMeasurementSource()
+                .follow(feed("time,value\n\n1\n2,unknown\n"), 1);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, source::next);
+        assertEquals("The measurement feed ended without a reading", e.getMessage());
+    }
+
+    @Test
+    public void throwsAfterTimeout() throws IOException {
+        System.setProperty(TIMEOUT, "100");
+        try (PipedOutputStream out = new PipedOutputStream()) {
+            StreamingMeasurementSource source = new StreamingMeasurementSource().follow(new PipedInputStream(out), 1);
+
+            long start = System.nanoTime();
+            IllegalStateException e = assertThrows(IllegalStateException.class, source::next);
+            assertEquals("No reading within 100 ms", e.getMessage());
+            assertTrue(System.nanoTime() - start >= 100_000_000L);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
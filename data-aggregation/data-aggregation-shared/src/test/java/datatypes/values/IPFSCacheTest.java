@@ -0,0 +1,175 @@
+package datatypes.values;
+
+import io.ipfs.multihash.Multihash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads files through the cache from several threads at once, and bounds the raw files kept in
+ * memory with and without a directory to fall back to.
+ */
+public class IPFSCacheTest {
+
+    private static final int CALLERS = 8;
+    // long enough for every caller to wait for the load that is in progress
+    private static final long LOAD_MILLIS = 200;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private static Multihash hash(String content) {
+        try {
+            return new Multihash(Multihash.Type.sha2_256, MessageDigest.getInstance("SHA-256").digest(content.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Future<IPFSFile>> getParsedConcurrently(IPFSCache cache, Multihash hash, IPFSCache.Loader<IPFSFile> loader) {
+        CyclicBarrier start = new CyclicBarrier(CALLERS);
+        List<Future<IPFSFile>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(this.executor.submit(() -> {
+                start.await();
+                return cache.getParsed(hash, IPFSFile.class, loader);
+            }));
+        }
+        return results;
+    }
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        IPFSCache cache = new IPFSCache(1024, 16, null);
+        Multihash hash = hash("file");
+        AtomicInteger loads = new AtomicInteger();
+        IPFSCache.Loader<IPFSFile> loader = h -> {
+            loads.incrementAndGet();
+            sleep(LOAD_MILLIS);
+            return new IPFSFile("98765", null, new EncryptedData(BigInteger.TEN, 0));
+        };
+
+        List<IPFSFile> files = new ArrayList<>();
+        for (Future<IPFSFile> result : getParsedConcurrently(cache, hash, loader))
+            files.add(result.get(10, TimeUnit.SECONDS));
+
+        assertEquals(1, loads.get());
+        for (IPFSFile file : files) {
+            assertEquals(BigInteger.TEN, file.getData().getCiphertext());
+            assertEquals(hash, file.getHash());
+        }
+        // every caller gets its own copy
+        assertNotSame(files.get(0), files.get(1));
+        assertNotSame(files.get(0).getData(), files.get(1).getData());
+    }
+
+    @Test
+    public void failedLoadReachesEveryWaiter() throws Exception {
+        IPFSCache cache = new IPFSCache(1024, 16, null);
+        Multihash hash = hash("file");
+        AtomicInteger loads = new AtomicInteger();
+        IPFSCache.Loader<IPFSFile> loader = h -> {
+            loads.incrementAndGet();
+            sleep(LOAD_MILLIS);
+            throw new IOException("IPFS is not reachable");
+        };
+
+        for (Future<IPFSFile> result : getParsedConcurrently(cache, hash, loader)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException);
+            assertEquals("IPFS is not reachable", e.getCause().getMessage());
+        }
+        assertEquals(1, loads.get());
+
+        // the failed load is forgotten, so the next caller loads again
+        IPFSFile file = cache.getParsed(hash, IPFSFile.class, h -> new IPFSFile("98765", null, new EncryptedData(BigInteger.ONE, 0)));
+        assertEquals(BigInteger.ONE, file.getData().getCiphertext());
+    }
+
+    @Test
+    public void evictedFileIsReadFromDirectory() throws IOException {
+        IPFSCache cache = new IPFSCache(10, 16, this.directory);
+        Multihash first = hash("first");
+        Multihash second = hash("second");
+
+        cache.put(first, new byte[]{1, 2, 3, 4, 5, 6});
+        cache.put(second, new byte[]{7, 8, 9, 10, 11, 12});
+
+        assertTrue(Files.exists(this.directory.resolve(first.toBase58())));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, cache.get(first));
+        assertArrayEquals(new byte[]{7, 8, 9, 10, 11, 12}, cache.get(second));
+    }
+
+    @Test
+    public void evictedFileIsGoneWithoutDirectory() {
+        IPFSCache cache = new IPFSCache(10, 16, null);
+        Multihash first = hash("first");
+        Multihash second = hash("second");
+
+        cache.put(first, new byte[]{1, 2, 3, 4, 5, 6});
+        cache.put(second, new byte[]{7, 8, 9, 10, 11, 12});
+
+        assertNull(cache.get(first));
+        assertArrayEquals(new byte[]{7, 8, 9, 10, 11, 12}, cache.get(second));
+    }
+
+    @Test
+    public void fileLargerThanMaxBytesIsNotKeptInMemory() throws IOException {
+        IPFSCache memory = new IPFSCache(4, 16, null);
+        Multihash small = hash("small");
+        Multihash large = hash("large");
+
+        memory.put(small, new byte[]{1, 2});
+        memory.put(large, new byte[]{1, 2, 3, 4, 5});
+
+        assertNull(memory.get(large));
+        // it did not evict the files that fit
+        assertArrayEquals(new byte[]{1, 2}, memory.get(small));
+
+        IPFSCache disk = new IPFSCache(4, 16, this.directory);
+        disk.put(large, new byte[]{1, 2, 3, 4, 5});
+
+        assertTrue(Files.exists(this.directory.resolve(large.toBase58())));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, disk.get(large));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
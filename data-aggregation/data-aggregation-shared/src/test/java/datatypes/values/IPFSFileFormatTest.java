@@ -0,0 +1,109 @@
+package datatypes.values;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads the header and fields of files in the binary format, and rejects files that are damaged
+ * or of another version or kind with an IOException.
+ */
+public class IPFSFileFormatTest {
+
+    @Test
+    public void readsFieldsAfterHeader() throws IOException {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN)
+                .writeString("key").writeBytes(null).writeInt(7).writeBytes(new byte[]{1, 2, 3}).toByteArray();
+
+        assertTrue(IPFSFileFormat.isBinary(file));
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN);
+        assertEquals("key", IPFSFileFormat.readString(buffer));
+        assertNull(IPFSFileFormat.readBytes(buffer));
+        assertEquals(7, IPFSFileFormat.readInt(buffer));
+        assertArrayEquals(new byte[]{1, 2, 3}, IPFSFileFormat.readBytes(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void textFormatIsNotBinary() {
+        byte[] file = "98765\nnull\nnull:0".getBytes(UTF_8);
+
+        assertFalse(IPFSFileFormat.isBinary(file));
+        assertThrows(IOException.class, () -> IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN));
+    }
+
+    @Test
+    public void rejectsOtherVersion() {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeString("key").toByteArray();
+        file[4] = IPFSFileFormat.VERSION + 1;
+
+        IOException e = assertThrows(IOException.class, () -> IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN));
+        assertEquals("Unsupported file version 2", e.getMessage());
+    }
+
+    @Test
+    public void rejectsOtherKind() {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.DATA_QUERY).writeString("key").toByteArray();
+
+        assertThrows(IOException.class, () -> IPFSFileFormat.reader(file, IPFSFileFormat.AGGREGATION));
+    }
+
+    @Test
+    public void rejectsTruncatedHeader() {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).toByteArray();
+
+        for (int length = 4; length < file.length; length++) {
+            byte[] truncated = Arrays.copyOf(file, length);
+            assertThrows(IOException.class, () -> IPFSFileFormat.reader(truncated, IPFSFileFormat.PLAIN));
+        }
+    }
+
+    @Test
+    public void rejectsTruncatedField() throws IOException {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeBytes(new byte[]{1, 2, 3}).toByteArray();
+
+        for (int length = file.length - 1; length >= file.length - 7; length--) {
+            ByteBuffer buffer = IPFSFileFormat.reader(Arrays.copyOf(file, length), IPFSFileFormat.PLAIN);
+            assertThrows(IOException.class, () -> IPFSFileFormat.readBytes(buffer));
+        }
+    }
+
+    @Test
+    public void rejectsNegativeLength() throws IOException {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeInt(-2).writeInt(0).toByteArray();
+
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN);
+        assertThrows(IOException.class, () -> IPFSFileFormat.readBytes(buffer));
+    }
+
+    @Test
+    public void rejectsNegativeCount() throws IOException {
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeInt(-1).toByteArray();
+
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN);
+        assertThrows(IOException.class, () -> IPFSFileFormat.readCount(buffer));
+    }
+
+    @Test
+    public void rejectsCountLargerThanFile() throws IOException {
+        // two elements of at least four bytes do not fit in the four bytes that follow
+        byte[] file = IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeInt(2).writeInt(-1).toByteArray();
+
+        ByteBuffer buffer = IPFSFileFormat.reader(file, IPFSFileFormat.PLAIN);
+        assertThrows(IOException.class, () -> IPFSFileFormat.readCount(buffer));
+
+        ByteBuffer fits = IPFSFileFormat.reader(
+                IPFSFileFormat.writer(IPFSFileFormat.PLAIN).writeInt(1).writeInt(-1).toByteArray(), IPFSFileFormat.PLAIN);
+        assertEquals(1, IPFSFileFormat.readCount(fits));
+    }
+}
@@ -0,0 +1,116 @@
+package encryption;
+
+import com.n1analytics.paillier.EncryptedNumber;
+import com.n1analytics.paillier.PaillierContext;
+import com.n1analytics.paillier.PaillierPrivateKey;
+import datatypes.values.EncryptedData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Encrypts, adds and decrypts on each arithmetic backend, and checks the results against the
+ * PaillierPrivateKey of javallier for the same key. Encrypts with obfuscators of the
+ * PaillierObfuscatorPool, and evicts the pool of a key once its last process is released.
+ */
+public class PaillierEncryptionTest {
+
+    private static final BigInteger A = new BigInteger("123456789012345678901234567890");
+    private static final BigInteger B = new BigInteger("987654321098765432109876543210");
+
+    private final ArithmeticBackend original = PaillierEncryption.getArithmeticBackend();
+
+    @AfterEach
+    public void restoreBackend() {
+        PaillierEncryption.setArithmeticBackend(original);
+    }
+
+    @Test
+    public void roundTripOnJava() {
+        roundTrip(new JavaArithmeticBackend());
+    }
+
+    @Test
+    public void roundTripOnGmp() {
+        assumeTrue(GmpArithmeticBackend.isAvailable(), "libgmp could not be loaded");
+        roundTrip(new GmpArithmeticBackend());
+    }
+
+    private static void roundTrip(ArithmeticBackend backend) {
+        PaillierEncryption.setArithmeticBackend(backend);
+        PaillierEncryption key = new PaillierEncryption(1024);
+        PaillierPrivateKey reference = new PaillierPrivateKey(key.getPublic(), key.totient());
+        String modulus = key.serialize();
+        PaillierContext context = PaillierEncryption.unsignedContext(modulus);
+
+        EncryptedData sum = PaillierEncryption.add(context,
+                PaillierEncryption.encrypt(A, modulus), PaillierEncryption.encrypt(B, modulus));
+
+        assertEquals(A.add(B), key.decrypt(sum));
+        assertEquals(A.add(B), reference.decrypt(new EncryptedNumber(context, sum.getCiphertext(),
+                Integer.parseInt(sum.getExponent()))).decodeBigInteger());
+
+        EncryptedNumber byJavallier = context.encrypt(A);
+        assertEquals(A, key.decrypt(new EncryptedData(byJavallier.calculateCiphertext(), byJavallier.getExponent())));
+    }
+
+    @Test
+    public void pooledObfuscatorsDecrypt() throws InterruptedException {
+        PaillierEncryption key = new PaillierEncryption(1024);
+        String modulus = key.serialize();
+        BigInteger n = key.getPublic().getModulus();
+        BigInteger nSquared = key.getPublic().getModulusSquared();
+
+        PaillierObfuscatorPool.prepare("pooled", modulus);
+        try {
+            // the ciphertext as encrypt computes it, (1 + n * m) * r^n mod n^2
+            BigInteger obfuscator = awaitObfuscator(modulus);
+            assertEquals(A, key.decrypt(new EncryptedData(n.multiply(A).add(BigInteger.ONE).multiply(obfuscator).mod(nSquared), 0)));
+
+            for (int i = 0; i < 32; i++) {
+                BigInteger value = BigInteger.valueOf(i);
+                assertEquals(value, key.decrypt(PaillierEncryption.encrypt(value, modulus)));
+            }
+        } finally {
+            PaillierObfuscatorPool.release("pooled");
+        }
+    }
+
+    @Test
+    public void releasingLastProcessEvictsPool() throws InterruptedException {
+        PaillierEncryption key = new PaillierEncryption(1024);
+        String modulus = key.serialize();
+
+        PaillierObfuscatorPool.prepare("first", modulus);
+        PaillierObfuscatorPool.prepare("second", modulus);
+        awaitObfuscator(modulus);
+
+        PaillierObfuscatorPool.release("first");
+        assertNotNull(awaitObfuscator(modulus));
+
+        PaillierObfuscatorPool.release("second");
+        assertNull(PaillierObfuscatorPool.take(modulus));
+        // without a pool the obfuscator is computed while encrypting
+        assertEquals(A, key.decrypt(PaillierEncryption.encrypt(A, modulus)));
+
+        // releasing a process again does nothing
+        PaillierObfuscatorPool.release("second");
+        assertNull(PaillierObfuscatorPool.take(modulus));
+    }
+
+    private static BigInteger awaitObfuscator(String modulus) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            BigInteger obfuscator = PaillierObfuscatorPool.take(modulus);
+            if (obfuscator != null) return obfuscator;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No obfuscator was computed for the key");
+    }
+}
@@ -79,14 +79,14 @@ public class DataQueryContract implements ContractInterface {
         DataQueryIPFSFile ipfsFile = dataQuery.getIpfsFile();
         EncryptedData encData = EncryptedData.deserialize(new String(trans.get("data")));
 
-        if(dataQuery.getIpfsFile().getData().getData().equals("null")) {
+        if(dataQuery.getIpfsFile().getData().isEmpty()) {
             dataQuery.getIpfsFile().setData(encData);
             dataQuery.setNrParticipants(nrParticipants);
-        } else if (!ipfsFile.getData().getData().equals(encData.getData())
+        } else if (!ipfsFile.getData().getCiphertext().equals(encData.getCiphertext())
                 || !ipfsFile.getData().getExponent().equals(encData.getExponent())
                 || dataQuery.getNrParticipants() != nrParticipants)
             dataQuery.setIncFlag();
-        ipfsFile.getNonces().addNonce(EncryptedNonce.deserialize(new String(trans.get("nonces"))));
+        ipfsFile.addNonce(EncryptedNonce.deserialize(new String(trans.get("nonces"))));
 
         String serDataQuery;
         if (ipfsFile.getNonces().isFull()) {
@@ -1,3 +1,8 @@
+import applications.operator.DataAndNonces;
+import applications.operator.MappedCsvMeasurementSource;
+import applications.operator.MeasurementSource;
+import applications.operator.RetryPolicy;
+import applications.operator.StreamingMeasurementSource;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.netty.util.internal.logging.Slf4JLoggerFactory;
 import org.apache.log4j.Level;
@@ -21,7 +26,8 @@ public class Application {
     /**
      * The identity of the client is created and the application connects to the Hyperledger
      * Fabric network using the Gateway. The channels being connected to are participant and
-     * asker.
+     * asker. The measurements are read from the dataset, or from the feed named by the
+     * measurement.feed system property.
      *
      * @param args the args of the main method.
      */
@@ -31,6 +37,8 @@ public class Application {
 
         Gateway.Builder builder = Gateway.createBuilder();
         try {
+            DataAndNonces.setMeasurementSource(createMeasurementSource());
+
             Path walletPath = Paths.get(".", "wallet");
             Wallet wallet = Wallets.newFileSystemWallet(walletPath);
 
@@ -38,7 +46,8 @@ public class Application {
 
             String username = "User1@org1.example.com";
             Path connectionProfile = Paths.get("..", "gateway", "connection-org1.yaml");
-            builder.identity(wallet, username).networkConfig(connectionProfile).discovery(true);
+            builder.identity(wallet, username).networkConfig(connectionProfile).discovery(true)
+                    .commitHandler(RetryPolicy.commitHandler());
 
             try (Gateway gateway = builder.connect()) {
                 Network networkAgg = gateway.getNetwork("participants");
@@ -54,6 +63,21 @@ public class Application {
         }
     }
 
+    /**
+     * Creates the source of the measurements. When the measurement.feed system property names a
+     * file or pipe, the latest reading of that feed is used. Otherwise random entries of the
+     * dataset are used, which is indexed once here.
+     *
+     * @return the source of the measurements.
+     * @throws IOException when the feed or dataset cannot be opened.
+     */
+    private static MeasurementSource createMeasurementSource() throws IOException {
+        String feed = System.getProperty("measurement.feed");
+        if (feed != null)
+            return new StreamingMeasurementSource().follow(Files.newInputStream(Paths.get(feed)), 1);
+        return new MappedCsvMeasurementSource(Paths.get("src/main/resources/AEP_hourly.csv"), 1, false);
+    }
+
     /**
      * The identity the client uses is created.
      *
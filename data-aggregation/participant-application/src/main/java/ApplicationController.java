@@ -8,22 +8,26 @@ import datatypes.values.EncryptedData;
 import datatypes.values.EncryptedNonces;
 import datatypes.values.Pair;
 import encryption.NTRUEncryption;
+import encryption.PaillierObfuscatorPool;
 import org.bouncycastler.crypto.InvalidCipherTextException;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.ContractException;
 import org.hyperledger.fabric.shim.ChaincodeException;
+import org.json.JSONObject;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Scanner;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 public class ApplicationController {
 
+    // the work is mostly waiting on the network, so a few more threads than cores are kept busy
+    private static final ProcessExecutor executor = new ProcessExecutor(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
     /**
      * The main loop of the application is started. The user will be prompted with options and can
      * decide by entering a name which functionality to use. The existing functionalities are
@@ -38,7 +42,7 @@ public class ApplicationController {
         Scanner scan = new Scanner(System.in);
 
         while (true) {
-            System.out.println("Please select a transaction: exists, or change threshold: threshold. Type exit to stop.");
+            System.out.println("Please select a transaction: exists, change threshold: threshold, or show retry counters: retries. Type exit to stop.");
             try {
                 switch (scan.next()) {
                     case "exists":
@@ -48,6 +52,10 @@ public class ApplicationController {
                         ApplicationModel.getInstance().setOperatorThreshold(
                                 Integer.parseInt(ParticipantTransaction.scanNextLine("New threshold: ")));
                         break;
+                    case "retries":
+                        ParticipantTransaction.getRetryPolicy().getCounters()
+                                .forEach((name, counters) -> System.out.println(name + ": " + counters));
+                        break;
                     case "exit":
                         System.exit(0);
                         break;
@@ -64,8 +72,9 @@ public class ApplicationController {
     }
 
     /**
-     * The listeners for the data query contract are set. This involves the events StartQuery, ResultQuery,
-     * and RemoveQuery.
+     * The listeners for the data query contract are set. This involves the events StartQuery, DoneQuery,
+     * and RemoveQuery. The work for an event is handed to the process executor. Obfuscators for the
+     * Paillier key of a query are precomputed from StartQuery until the query is done or removed.
      *
      * @param contractQuery the data query contract.
      * @param contractAgg   the aggregation process contract.
@@ -73,59 +82,74 @@ public class ApplicationController {
     private static void setDataQueryConsumers(Contract contractQuery, Contract contractAgg) {
         Consumer<ContractEvent> consumer = contractEvent -> {
             if (!contractEvent.getTransactionEvent().isValid()) return;
-            try {
-                DataQuery data = DataQuery.deserialize(contractEvent.getPayload().get());
-                switch (contractEvent.getName()) {
-                    case "StartQuery":
-                        synchronized (ApplicationModel.getInstance()) {
+            String name = contractEvent.getName();
+            if (!"StartQuery".equals(name) && !"DoneQuery".equals(name) && !"RemoveQuery".equals(name)) return;
+
+            byte[] payload = contractEvent.getPayload().get();
+            String id = processId(payload);
+            if ("DoneQuery".equals(name)) {
+                executor.submit(id, () -> PaillierObfuscatorPool.release(id));
+                return;
+            }
+            executor.submit(id, () -> {
+                try {
+                    DataQuery data = DataQuery.deserialize(payload);
+                    switch (name) {
+                        case "StartQuery":
                             System.out.println("StartQuery");
+                            PaillierObfuscatorPool.prepare(data.getId(), data.getIpfsFile().getPaillierKey());
                             OperatorKeyStore keystore = AggregationTransactions.start(contractAgg, data.getSettings().getNrExpectedParticipants(), data);
                             if (keystore.getIndex() == -1) return;
                             ApplicationModel.getInstance().addProcess(data.getId(), keystore);
 
                             ApplicationController.ruleTimeLimit(contractQuery, contractAgg, data, keystore);
-                        }
-                        break;
-                    case "RemoveQuery":
-                        System.out.println("RemoveQuery");
-                        AggregationTransactions.remove(contractAgg, data.getId());
-                        break;
+                            break;
+                        case "RemoveQuery":
+                            System.out.println("RemoveQuery");
+                            PaillierObfuscatorPool.release(data.getId());
+                            AggregationTransactions.remove(contractAgg, data.getId());
+                            break;
+                    }
+                } catch (ChaincodeException e) {
+                    System.err.println(e.getMessage());
+                } catch (ContractException | IOException | InterruptedException | TimeoutException e) {
+                    e.printStackTrace();
                 }
-            } catch (ChaincodeException e) {
-                System.err.println(e.getMessage());
-            } catch (ContractException | IOException | InterruptedException | TimeoutException e) {
-                e.printStackTrace();
-            }
+            });
         };
         contractQuery.addContractListener(consumer);
     }
 
     /**
      * The listeners for the aggregation process contract are set. This involves the StartAggregation event.
+     * The work for an event is handed to the process executor.
      *
      * @param contractAgg the aggregation process contract.
      */
     private static void setAggregationProcessConsumers(Contract contractAgg, Contract contractQuery) {
         Consumer<ContractEvent> consumer = contractEvent -> {
-            try {
-                if (!contractEvent.getTransactionEvent().isValid()) return;
-                AggregationProcess aggregationProcess = AggregationProcess.deserialize(contractEvent.getPayload().get());
-                switch (contractEvent.getName()) {
-                    case "StartAggregating":
-                        if (ApplicationModel.getInstance().getOperatorThreshold() > aggregationProcess.getIpfsFile().getOperatorKeys().length
-                                && ApplicationModel.getInstance().getKey(aggregationProcess.getId()) == null) return;
-                        System.out.println("StartAggregation");
-
-                        Pair<EncryptedData, EncryptedNonces> dataAndNonces = DataAndNonces.generateDataAndNonces(
-                                aggregationProcess.getIpfsFile().getPaillierKey(),
-                                Arrays.stream(aggregationProcess.getIpfsFile().getOperatorKeys()).map(NTRUEncryption::serialize).toArray(String[]::new)
-                        );
-                        AggregationTransactions.add(contractAgg, aggregationProcess.getId(), dataAndNonces.getP1(), dataAndNonces.getP2());
-
-                        break;
-                    case "ParticipantsReached":
-                        synchronized (ApplicationModel.getInstance()) {
+            if (!contractEvent.getTransactionEvent().isValid()) return;
+            String name = contractEvent.getName();
+            if (!"StartAggregating".equals(name) && !"ParticipantsReached".equals(name)) return;
+
+            byte[] payload = contractEvent.getPayload().get();
+            executor.submit(processId(payload), () -> {
+                try {
+                    AggregationProcess aggregationProcess = AggregationProcess.deserialize(payload);
+                    switch (name) {
+                        case "StartAggregating":
+                            if (ApplicationModel.getInstance().getOperatorThreshold() > aggregationProcess.getIpfsFile().getOperatorKeys().length
+                                    && ApplicationModel.getInstance().getKey(aggregationProcess.getId()) == null) return;
+                            System.out.println("StartAggregation");
+
+                            Pair<EncryptedData, EncryptedNonces> dataAndNonces = DataAndNonces.generateDataAndNonces(
+                                    aggregationProcess.getIpfsFile().getPaillierKey(),
+                                    Arrays.stream(aggregationProcess.getIpfsFile().getOperatorKeys()).map(NTRUEncryption::serialize).toArray(String[]::new)
+                            );
+                            AggregationTransactions.addShard(contractAgg, aggregationProcess, dataAndNonces.getP1(), dataAndNonces.getP2());
 
+                            break;
+                        case "ParticipantsReached":
                             System.out.println("ParticipantsReached");
                             OperatorKeyStore opKeystore = ApplicationModel.getInstance().getKey(aggregationProcess.getId());
                             if (opKeystore == null) return;
@@ -140,20 +164,21 @@ public class ApplicationController {
                             );
                             ApplicationModel.getInstance().removeProcess(aggregationProcess.getId());
                             break;
-                        }
+                    }
+                } catch (ChaincodeException e) {
+                    System.err.println(e.getMessage());
+                } catch (InterruptedException | TimeoutException | InvalidCipherTextException | IOException | ContractException e) {
+                    e.printStackTrace();
                 }
-            } catch (ChaincodeException e) {
-                System.err.println(e.getMessage());
-            } catch (InterruptedException | TimeoutException | InvalidCipherTextException | IOException | ContractException e) {
-                e.printStackTrace();
-            }
+            });
         };
 
         contractAgg.addContractListener(consumer);
     }
 
     /**
-     * The actions after the time limit of the data query process is reached are set.
+     * The actions after the time limit of the data query process is reached are set. They run on the
+     * process executor, after any work for the process that is still pending.
      *
      * @param contractQuery the data query contract.
      * @param contractAgg   the aggregation process contract.
@@ -161,31 +186,37 @@ public class ApplicationController {
      * @param keystore      the operator keystore.
      */
     private static void ruleTimeLimit(Contract contractQuery, Contract contractAgg, DataQuery data, OperatorKeyStore keystore) {
-        TimerTask action = new TimerTask() {
-            public void run() {
-                synchronized (ApplicationModel.getInstance()) {
-                    try {
-                        if (!ApplicationModel.getInstance().containsId(data.getId())) return;
-
-                        AggregationProcess aggregationProcess = AggregationTransactions.close(contractAgg, data.getId());
-
-                        applications.operator.DataQueryTransactions.add(contractQuery, aggregationProcess.getId(), aggregationProcess.getIpfsFile(),
-                                EncryptedNonces.condenseNonces(
-                                        keystore,
-                                        EncryptedNonces.getOperatorNonces(aggregationProcess, keystore.getIndex()),
-                                        NTRUEncryption.serialize(aggregationProcess.getIpfsFile().getPostqKey())
-                                ), keystore.getIndex()
-                        );
-                        ApplicationModel.getInstance().removeProcess(data.getId());
-
-                    } catch (ChaincodeException e) {
-                        System.err.println(e.getMessage());
-                    } catch (InterruptedException | TimeoutException | InvalidCipherTextException | IOException | ContractException e) {
-                        e.printStackTrace();
-                    }
-                }
+        executor.schedule(data.getId(), data.getSettings().getDuration() * 1000, () -> {
+            try {
+                if (!ApplicationModel.getInstance().containsId(data.getId())) return;
+
+                AggregationProcess aggregationProcess = AggregationTransactions.close(contractAgg, data.getId());
+
+                applications.operator.DataQueryTransactions.add(contractQuery, aggregationProcess.getId(), aggregationProcess.getIpfsFile(),
+                        EncryptedNonces.condenseNonces(
+                                keystore,
+                                EncryptedNonces.getOperatorNonces(aggregationProcess, keystore.getIndex()),
+                                NTRUEncryption.serialize(aggregationProcess.getIpfsFile().getPostqKey())
+                        ), keystore.getIndex()
+                );
+                ApplicationModel.getInstance().removeProcess(data.getId());
+
+            } catch (ChaincodeException e) {
+                System.err.println(e.getMessage());
+            } catch (InterruptedException | TimeoutException | InvalidCipherTextException | IOException | ContractException e) {
+                e.printStackTrace();
             }
-        };
-        new Timer().schedule(action, data.getSettings().getDuration() * 1000);
+        });
+    }
+
+    /**
+     * Reads the id of the process from the payload of an event, without fetching its IPFS file.
+     * The data query and the aggregation process of a query share this id.
+     *
+     * @param payload the payload of the event.
+     * @return the unique id of the process.
+     */
+    private static String processId(byte[] payload) {
+        return new JSONObject(new String(payload, StandardCharsets.UTF_8)).getString("id");
     }
 }
@@ -1,19 +1,21 @@
 import applications.operator.OperatorKeyStore;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ApplicationModel {
 
-    private static ApplicationModel applicationModel = null;
+    // the model is shared by the workers of the process executor
+    private static final ApplicationModel applicationModel = new ApplicationModel();
 
-    private final HashMap<String, OperatorKeyStore> operatorKeys;
-    private final HashSet<String> ids;
-    private int operatorThreshold = 0;
+    private final Map<String, OperatorKeyStore> operatorKeys;
+    private final Set<String> ids;
+    private volatile int operatorThreshold = 0;
 
     private ApplicationModel() {
-        operatorKeys = new HashMap<>();
-        ids = new HashSet<>();
+        operatorKeys = new ConcurrentHashMap<>();
+        ids = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -44,7 +46,6 @@ public class ApplicationModel {
     }
 
     public static ApplicationModel getInstance() {
-        if (applicationModel == null) applicationModel = new ApplicationModel();
         return applicationModel;
     }
 
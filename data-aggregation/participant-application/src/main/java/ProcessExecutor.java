@@ -0,0 +1,82 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the work of the processes the participant takes part in. The tasks of a single process run
+ * one after the other in the order they were submitted, the tasks of different processes run
+ * concurrently on a bounded pool of threads. Submitting never blocks, so the thread delivering the
+ * events of the Gateway is never held up by the work they cause.
+ */
+public class ProcessExecutor {
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+    private final Map<String, CompletableFuture<Void>> tails = new HashMap<>();
+
+    /**
+     * @param nrThreads the number of processes that can be worked on at the same time.
+     */
+    public ProcessExecutor(int nrThreads) {
+        this.workers = Executors.newFixedThreadPool(nrThreads, daemonThreads("process-worker-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("process-timer-"));
+    }
+
+    /**
+     * Runs the task after the tasks submitted earlier for the same process.
+     *
+     * @param id   the unique id of the process.
+     * @param task the task.
+     */
+    public synchronized void submit(String id, Task task) {
+        CompletableFuture<Void> tail = this.tails.getOrDefault(id, CompletableFuture.completedFuture(null));
+        CompletableFuture<Void> next = tail.thenRunAsync(() -> run(task), this.workers);
+        this.tails.put(id, next);
+        next.whenComplete((result, e) -> removeTail(id, next));
+    }
+
+    /**
+     * Submits the task for the process after the delay.
+     *
+     * @param id          the unique id of the process.
+     * @param delayMillis the delay in milliseconds.
+     * @param task        the task.
+     */
+    public void schedule(String id, long delayMillis, Task task) {
+        this.timer.schedule(() -> submit(id, task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void removeTail(String id, CompletableFuture<Void> tail) {
+        this.tails.remove(id, tail);
+    }
+
+    private static void run(Task task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The work for a process.
+     */
+    public interface Task {
+        void run() throws Exception;
+    }
+}